@@ -1,5 +1,9 @@
 package com.algolia.instantsearch.events;
 
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.algolia.instantsearch.model.SearchResults;
 import com.algolia.search.saas.Query;
 
 import org.json.JSONObject;
@@ -9,20 +13,48 @@ import org.json.JSONObject;
  */
 @SuppressWarnings("WeakerAccess")
 public class ResultEvent {
-    //TODO: provide SearchResults typed object?
     /** the JSON content containing these results. */
     public final JSONObject content;
+    /**
+     * the parsed results, shared with the {@link com.algolia.instantsearch.model.AlgoliaResultsListener listeners},
+     * or {@code null} if this event was built from a content that is not a valid search response.
+     */
+    @Nullable
+    public final SearchResults results;
     /** the Query that was sent with the search request. */
     public final Query query;
     /** the search request's identifier. */
     public final int requestSeqNumber;
 
+    /**
+     * Constructs a ResultEvent, parsing the given content if it is a valid search response.
+     */
     public ResultEvent(JSONObject content, Query query, int requestSeqNumber) {
         this.content = content;
+        this.results = parse(content);
         this.query = query;
         this.requestSeqNumber = requestSeqNumber;
     }
 
+    public ResultEvent(@NonNull SearchResults results, Query query, int requestSeqNumber) {
+        this.results = results;
+        this.content = results.content;
+        this.query = query;
+        this.requestSeqNumber = requestSeqNumber;
+    }
+
+    @Nullable
+    private static SearchResults parse(@Nullable JSONObject content) {
+        if (content == null) {
+            return null;
+        }
+        try {
+            return new SearchResults(content);
+        } catch (IllegalStateException e) {
+            return null; // Events could be built from any content before results were parsed
+        }
+    }
+
     @Override
     public String toString() {
         return "ResultEvent{" +
@@ -0,0 +1,393 @@
+package com.algolia.instantsearch.helpers;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.algolia.instantsearch.utils.BinaryJSON;
+
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Persists search responses on disk, so that they survive application restarts.
+ * <p>
+ * Each response is stored in its own file, as a small header (format version, storage time, index name and request key)
+ * followed by the response {@link BinaryJSON encoded in binary}. Files are memory-mapped when read,
+ * so an expired or mismatching entry is rejected by reading its header only.
+ * <p>
+ * Use it as the second tier of a {@link ResponseCache} with {@link ResponseCache#setDiskCache(DiskResponseCache)},
+ * which reads and updates it in the background.
+ * <p>
+ * This class is thread-safe: files are read and written without locking, only the bookkeeping of the cache's size is synchronized.
+ */
+@SuppressWarnings("WeakerAccess")
+public class DiskResponseCache {
+    /** Default maximum size of the cache on disk, in bytes. */
+    public static final long DEFAULT_MAX_BYTES = 10 * 1024 * 1024;
+    /** Default duration (in ms) during which a response is considered valid. */
+    public static final long DEFAULT_TTL = 24 * 60 * 60 * 1000;
+
+    private static final String DIRECTORY_NAME = "algolia-instantsearch";
+    private static final String EXTENSION = ".bin";
+    private static final int MAGIC = 0x41495343; // "AISC"
+    private static final byte VERSION = 2; // 2: header strings use the varint lengths of BinaryJSON
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /** Background disk accesses happen sequentially off the main thread, so that a read sees the previous writes and removals. */
+    private static final Executor executor = Executors.newSingleThreadExecutor();
+
+    @NonNull
+    private final File directory;
+    private final long maxBytes;
+    private final long ttl;
+
+    /** Guards {@link #currentSize}, and the renames and deletions it accounts for. */
+    private final Object sizeLock = new Object();
+    /** The total size of the cached files, or -1 until it is computed. */
+    private long currentSize = -1;
+
+    /**
+     * Constructs a disk cache in the application's cache directory, with the {@link #DEFAULT_MAX_BYTES default size} and {@link #DEFAULT_TTL default TTL}.
+     *
+     * @param context a Context to get the cache directory from.
+     */
+    public DiskResponseCache(@NonNull Context context) {
+        this(new File(context.getCacheDir(), DIRECTORY_NAME), DEFAULT_MAX_BYTES, DEFAULT_TTL);
+    }
+
+    /**
+     * Constructs a disk cache in the given directory.
+     *
+     * @param directory a directory dedicated to this cache.
+     * @param maxBytes  the maximum size of the cache on disk, least recently used responses being evicted first.
+     * @param ttl       the duration in milliseconds during which a response can be reused.
+     */
+    public DiskResponseCache(@NonNull File directory, long maxBytes, long ttl) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Gets a cached response if there is a valid one.
+     *
+     * @param key the key of the request, see {@link ResponseCache#getKey}.
+     * @return the cached response, or {@code null} if there is none or it expired.
+     */
+    @Nullable
+    public JSONObject get(@NonNull String key) {
+        final File file = getFile(key);
+        if (!file.exists()) {
+            return null;
+        }
+
+        try {
+            final ByteBuffer buffer = map(file);
+            final Header header = readHeader(buffer);
+            if (header == null) {
+                delete(file); // Written by another version of the cache
+                return null;
+            }
+            if (!key.equals(header.key)) {
+                return null;
+            }
+            if (System.currentTimeMillis() - header.time >= ttl) {
+                delete(file);
+                return null;
+            }
+            final JSONObject content = BinaryJSON.decode(buffer);
+            //noinspection ResultOfMethodCallIgnored best effort: not every file system supports it
+            file.setLastModified(System.currentTimeMillis());
+            return content;
+        } catch (IOException | IllegalArgumentException | BufferUnderflowException e) {
+            Log.e("Algolia|DiskCache", "Could not read cached response: " + e.getMessage());
+            delete(file);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a response, evicting the least recently used ones if the cache exceeds its maximum size.
+     *
+     * @param key       the key of the request, see {@link ResponseCache#getKey}.
+     * @param indexName the name of the index targeted by the request.
+     * @param content   the response to store.
+     */
+    public void put(@NonNull String key, @NonNull String indexName, @NonNull JSONObject content) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.e("Algolia|DiskCache", "Could not create cache directory " + directory + ".");
+            return;
+        }
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writeHeader(output, indexName, key);
+        final byte[] body = BinaryJSON.encode(content);
+        output.write(body, 0, body.length);
+
+        final File file = getFile(key);
+        File tmpFile = null;
+        FileOutputStream stream = null;
+        try {
+            tmpFile = File.createTempFile(file.getName(), ".tmp", directory); // Unique, as a same key can be written concurrently
+            stream = new FileOutputStream(tmpFile);
+            output.writeTo(stream);
+            stream.close();
+            stream = null;
+            synchronized (sizeLock) {
+                final long previousLength = file.length();
+                if (!tmpFile.renameTo(file)) {
+                    throw new IOException("Could not rename " + tmpFile + ".");
+                }
+                updateSize(file.length() - previousLength);
+            }
+        } catch (IOException e) {
+            Log.e("Algolia|DiskCache", "Could not write cached response: " + e.getMessage());
+            if (tmpFile != null) {
+                //noinspection ResultOfMethodCallIgnored best effort: it is not listed as a cached response anyway
+                tmpFile.delete();
+            }
+        } finally {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+        trimToSize();
+    }
+
+    /**
+     * Stores a response in the background.
+     *
+     * @param key       the key of the request, see {@link ResponseCache#getKey}.
+     * @param indexName the name of the index targeted by the request.
+     * @param content   the response to store, which should not be modified afterwards.
+     */
+    public void putAsync(@NonNull final String key, @NonNull final String indexName, @NonNull final JSONObject content) {
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                put(key, indexName, content);
+            }
+        });
+    }
+
+    /**
+     * Removes every cached response for a given index.
+     *
+     * @param indexName the index whose responses should be removed.
+     */
+    public void invalidate(@NonNull String indexName) {
+        for (File file : listFiles()) {
+            try {
+                final Header header = readHeader(map(file));
+                if (header == null || indexName.equals(header.indexName)) {
+                    delete(file);
+                }
+            } catch (IOException | IllegalArgumentException | BufferUnderflowException e) {
+                delete(file);
+            }
+        }
+    }
+
+    /**
+     * Removes every cached response for a given index in the background.
+     *
+     * @param indexName the index whose responses should be removed.
+     */
+    public void invalidateAsync(@NonNull final String indexName) {
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                invalidate(indexName);
+            }
+        });
+    }
+
+    /**
+     * Removes every cached response.
+     */
+    public void clear() {
+        for (File file : listFiles()) {
+            delete(file);
+        }
+    }
+
+    /**
+     * Removes every cached response in the background.
+     */
+    public void clearAsync() {
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                clear();
+            }
+        });
+    }
+
+    /** Runs a task accessing the disk in the background, after the ones previously submitted. */
+    void execute(@NonNull Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Gets the current size of this cache on disk.
+     *
+     * @return the total size of the cached responses, in bytes.
+     */
+    public long getSize() {
+        synchronized (sizeLock) {
+            if (currentSize != -1) {
+                return currentSize;
+            }
+        }
+        long size = 0;
+        for (File file : listFiles()) {
+            size += file.length();
+        }
+        synchronized (sizeLock) {
+            if (currentSize == -1) { // Unless another thread computed it meanwhile
+                currentSize = size;
+            }
+            return currentSize;
+        }
+    }
+
+    private void trimToSize() {
+        if (getSize() <= maxBytes) {
+            return;
+        }
+        final File[] files = listFiles();
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                final long lhsModified = lhs.lastModified();
+                final long rhsModified = rhs.lastModified();
+                return lhsModified < rhsModified ? -1 : (lhsModified == rhsModified ? 0 : 1);
+            }
+        });
+        for (int i = 0; i < files.length && getSize() > maxBytes; i++) {
+            delete(files[i]);
+        }
+    }
+
+    /** Should be called while holding {@link #sizeLock}. */
+    private void updateSize(long delta) {
+        if (currentSize != -1) {
+            currentSize += delta;
+        }
+    }
+
+    private void delete(@NonNull File file) {
+        synchronized (sizeLock) {
+            final long length = file.length();
+            if (file.delete()) {
+                updateSize(-length);
+            }
+        }
+    }
+
+    @NonNull
+    private File[] listFiles() {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return new File[0];
+        }
+        int count = 0;
+        for (File file : files) {
+            if (file.getName().endsWith(EXTENSION)) {
+                files[count++] = file;
+            }
+        }
+        return Arrays.copyOf(files, count);
+    }
+
+    @NonNull
+    private File getFile(@NonNull String key) {
+        return new File(directory, hash(key) + EXTENSION);
+    }
+
+    @NonNull
+    private static ByteBuffer map(@NonNull File file) throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = randomAccessFile.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            randomAccessFile.close(); // The mapping stays valid after closing the file
+        }
+    }
+
+    private static void writeHeader(@NonNull ByteArrayOutputStream output, @NonNull String indexName, @NonNull String key) {
+        final long time = System.currentTimeMillis();
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            output.write(MAGIC >>> shift);
+        }
+        output.write(VERSION);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            output.write((int) (time >>> shift));
+        }
+        BinaryJSON.writeString(output, indexName);
+        BinaryJSON.writeString(output, key);
+    }
+
+    /**
+     * Reads an entry's header, leaving the buffer positioned at the start of the response.
+     *
+     * @return the header, or {@code null} if the file was not written by this version of the cache.
+     */
+    @Nullable
+    private static Header readHeader(@NonNull ByteBuffer buffer) {
+        if (buffer.remaining() < 13 || buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+            return null;
+        }
+        final long time = buffer.getLong();
+        final String indexName = BinaryJSON.readString(buffer);
+        final String key = BinaryJSON.readString(buffer);
+        return new Header(time, indexName, key);
+    }
+
+    @NonNull
+    private static String hash(@NonNull String key) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(UTF_8));
+            final StringBuilder builder = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(key.hashCode()); // SHA-1 is always available on Android, collisions are checked anyway
+        }
+    }
+
+    private static class Header {
+        final long time;
+        @NonNull final String indexName;
+        @NonNull final String key;
+
+        Header(long time, @NonNull String indexName, @NonNull String key) {
+            this.time = time;
+            this.indexName = indexName;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.algolia.instantsearch.helpers;
+
+import android.support.annotation.NonNull;
+
+import com.algolia.instantsearch.model.NumericRefinement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A group of filters combined with the same operator, compiled into the <a href="https://www.algolia.com/doc/api-reference/api-parameters/filters/">{@code filters}</a> syntax.
+ * <p>
+ * Groups added to a {@link Searcher} are combined with {@code AND}, so that an expression such as
+ * {@code (brand:A OR brand:B) AND price<100 AND NOT color:red} is sent in a single request:
+ * <pre>{@code
+ * searcher.addFilterGroup(new FilterGroup(FilterGroup.OPERATOR_OR).addFacet("brand", "A").addFacet("brand", "B"))
+ *         .addFilterGroup(new FilterGroup(FilterGroup.OPERATOR_AND)
+ *                 .addNumeric(new NumericRefinement("price", NumericRefinement.OPERATOR_LT, 100))
+ *                 .addFacet("color", "red", true));
+ * }</pre>
+ * A group compiles its expression once and keeps it until it is modified. Note that the engine does not accept
+ * {@code OR} between filters of different kinds, e.g. a facet and a numeric filter.
+ */
+@SuppressWarnings("WeakerAccess")
+public class FilterGroup {
+    /** Combines the filters with AND: every filter has to match. */
+    public static final int OPERATOR_AND = 0;
+    /** Combines the filters with OR: at least one filter has to match. */
+    public static final int OPERATOR_OR = 1;
+
+    private final int operator;
+    /** The compiled filters of this group, in the order they were added. */
+    private final List<String> filters = new ArrayList<>();
+    /** The compiled expression, or {@code null} if the group changed since it was last compiled. */
+    private String expression;
+
+    /**
+     * Constructs an empty group.
+     *
+     * @param operator {@link #OPERATOR_AND} or {@link #OPERATOR_OR}.
+     * @throws IllegalArgumentException if operator is not a known operator.
+     */
+    public FilterGroup(int operator) {
+        if (operator != OPERATOR_AND && operator != OPERATOR_OR) {
+            throw new IllegalArgumentException("operator (" + operator + ") should be one of FilterGroup.OPERATOR_XX.");
+        }
+        this.operator = operator;
+    }
+
+    /**
+     * Adds a facet filter to this group.
+     *
+     * @param attribute the attribute to filter on.
+     * @param value     the facet's value to filter with.
+     * @return this group, for chaining.
+     */
+    public FilterGroup addFacet(@NonNull String attribute, @NonNull String value) {
+        return addFacet(attribute, value, false);
+    }
+
+    /**
+     * Adds a facet filter to this group.
+     *
+     * @param attribute the attribute to filter on.
+     * @param value     the facet's value to filter with.
+     * @param negated   if {@code true}, records having this value are excluded.
+     * @return this group, for chaining.
+     */
+    public synchronized FilterGroup addFacet(@NonNull String attribute, @NonNull String value, boolean negated) {
+        return add(facetFilter(attribute, value, negated));
+    }
+
+    /**
+     * Removes a facet filter from this group.
+     *
+     * @param attribute the attribute filtered on.
+     * @param value     the facet's value filtered with.
+     * @param negated   whether the filter was negated.
+     * @return this group, for chaining.
+     */
+    public synchronized FilterGroup removeFacet(@NonNull String attribute, @NonNull String value, boolean negated) {
+        return remove(facetFilter(attribute, value, negated));
+    }
+
+    /**
+     * Adds a boolean filter to this group.
+     *
+     * @param attribute the attribute to filter on.
+     * @param value     the value to filter with.
+     * @return this group, for chaining.
+     */
+    public synchronized FilterGroup addBoolean(@NonNull String attribute, boolean value) {
+        return add(attribute + ":" + value);
+    }
+
+    /**
+     * Adds a numeric filter to this group.
+     *
+     * @param refinement a {@link NumericRefinement} describing the filter.
+     * @return this group, for chaining.
+     */
+    public synchronized FilterGroup addNumeric(@NonNull NumericRefinement refinement) {
+        return add(refinement.toString());
+    }
+
+    /**
+     * Removes a numeric filter from this group.
+     *
+     * @param refinement a {@link NumericRefinement} describing the filter.
+     * @return this group, for chaining.
+     */
+    public synchronized FilterGroup removeNumeric(@NonNull NumericRefinement refinement) {
+        return remove(refinement.toString());
+    }
+
+    /**
+     * Removes every filter from this group.
+     *
+     * @return this group, for chaining.
+     */
+    public synchronized FilterGroup clear() {
+        filters.clear();
+        expression = null;
+        return this;
+    }
+
+    /**
+     * Checks if this group contains some filters.
+     *
+     * @return {@code true} if the group has no filter.
+     */
+    public synchronized boolean isEmpty() {
+        return filters.isEmpty();
+    }
+
+    /**
+     * Compiles this group into the {@code filters} syntax.
+     *
+     * @return the group's expression, such as {@code (brand:"A" OR brand:"B")} or {@code brand:"A" AND price<100.000000},
+     * or an empty string if it has no filter.
+     */
+    @NonNull
+    public synchronized String compile() {
+        if (expression == null) {
+            expression = join(filters, operator == OPERATOR_OR);
+        }
+        return expression;
+    }
+
+    @Override
+    public String toString() {
+        return "FilterGroup{" + compile() + "}";
+    }
+
+    private FilterGroup add(@NonNull String filter) {
+        if (!filters.contains(filter)) {
+            filters.add(filter);
+            expression = null;
+        }
+        return this;
+    }
+
+    private FilterGroup remove(@NonNull String filter) {
+        if (filters.remove(filter)) {
+            expression = null;
+        }
+        return this;
+    }
+
+    /**
+     * Compiles a facet filter, quoting its value.
+     *
+     * @param attribute the attribute to filter on.
+     * @param value     the facet's value to filter with.
+     * @param negated   if {@code true}, the filter is prefixed with {@code NOT}.
+     * @return a filter such as {@code brand:"Apple"}.
+     */
+    @NonNull
+    static String facetFilter(@NonNull String attribute, @NonNull String value, boolean negated) {
+        final StringBuilder builder = new StringBuilder(attribute.length() + value.length() + 8);
+        if (negated) {
+            builder.append("NOT ");
+        }
+        builder.append(attribute).append(":\"");
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\');
+            }
+            builder.append(c);
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * Joins filters with an operator. As the engine only accepts conjunctions of disjunctions,
+     * parentheses are only added around several filters joined with {@code OR}, and around the operands
+     * of an {@code AND} which contain a top-level {@code OR}, such as a user-provided expression.
+     *
+     * @param filters the compiled filters to join.
+     * @param or      {@code true} to join with {@code OR}, {@code false} to join with {@code AND}.
+     * @return the joined expression, or an empty string if there is no filter.
+     */
+    @NonNull
+    static String join(@NonNull List<String> filters, boolean or) {
+        if (filters.size() <= 1) {
+            return filters.isEmpty() ? "" : filters.get(0);
+        }
+        final StringBuilder builder = new StringBuilder();
+        if (or) {
+            builder.append('(');
+        }
+        for (int i = 0; i < filters.size(); i++) {
+            if (i > 0) {
+                builder.append(or ? " OR " : " AND ");
+            }
+            final String filter = filters.get(i);
+            if (!or && hasTopLevelOr(filter)) {
+                builder.append('(').append(filter).append(')');
+            } else {
+                builder.append(filter);
+            }
+        }
+        if (or) {
+            builder.append(')');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Checks if an expression contains an {@code OR} outside of any parentheses and quoted value.
+     *
+     * @param expression an expression in the {@code filters} syntax.
+     * @return {@code true} if the expression would change meaning when ANDed with another one without parentheses.
+     */
+    static boolean hasTopLevelOr(@NonNull String expression) {
+        int depth = 0;
+        boolean quoted = false;
+        final int length = expression.length();
+        for (int i = 0; i < length; i++) {
+            final char c = expression.charAt(i);
+            if (quoted) {
+                if (c == '\\') {
+                    i++; // Skip the escaped character
+                } else if (c == '"') {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && expression.startsWith("OR", i)
+                    && (i == 0 || isOperatorBoundary(expression.charAt(i - 1)))
+                    && (i + 2 == length || isOperatorBoundary(expression.charAt(i + 2)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOperatorBoundary(char c) {
+        return Character.isWhitespace(c) || c == '(' || c == ')';
+    }
+}
@@ -0,0 +1,162 @@
+package com.algolia.instantsearch.helpers;
+
+import android.content.Context;
+import android.os.Build;
+import android.support.annotation.ColorInt;
+import android.support.annotation.ColorRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.Spannable;
+import android.util.SparseIntArray;
+
+import com.algolia.instantsearch.R;
+import com.algolia.instantsearch.model.ResultsProcessor;
+import com.algolia.instantsearch.model.SearchResults;
+import com.algolia.instantsearch.ui.databinding.RenderingHelper;
+
+import org.json.JSONObject;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps the highlighted attributes of hits rendered, so that binding a hit again is a lookup.
+ * <p>
+ * As a {@link ResultsProcessor}, it renders every attribute marked for highlighting in the {@link RenderingHelper}
+ * for a whole page at once when the response arrives, off the main thread if the Searcher has a
+ * {@link Searcher#setProcessingExecutor processing executor}. Entries are keyed by the instances of the
+ * {@link SearchResults#getHitList() hit list}, as a same record can be highlighted differently from one query to the next,
+ * and should be {@link #retain(Collection) evicted} when hits are not displayed anymore.
+ * <p>
+ * As processors run in the order they were added, a processor providing the hit list such as {@link ParallelHitsProcessor}
+ * should be added to the Searcher before this cache, i.e. before linking the Searcher to {@link com.algolia.instantsearch.ui.views.Hits Hits}.
+ */
+@SuppressWarnings("WeakerAccess")
+public class HighlightCache implements ResultsProcessor {
+    @NonNull
+    private final Context context;
+    /**
+     * The rendered attributes of each hit. Weak keys drop the hits of responses that were never displayed,
+     * once no {@link ResponseCache} holds them anymore.
+     */
+    private final Map<JSONObject, Map<String, Spannable>> renderedHits = new WeakHashMap<>();
+    /** The resolved color of each {@link ColorRes color resource}. */
+    private final SparseIntArray colors = new SparseIntArray();
+
+    /**
+     * Constructs a cache rendering with the given context's resources.
+     *
+     * @param context a {@link Context} to get colors from.
+     */
+    public HighlightCache(@NonNull Context context) {
+        this.context = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+    }
+
+    @Override
+    public void process(@NonNull SearchResults results) {
+        final Set<String> attributes = RenderingHelper.getDefault().getHighlightedAttributes();
+        if (attributes.isEmpty()) {
+            return;
+        }
+        // The hits as displayed, which differ from the response's ones if a processor decoded them
+        for (JSONObject hit : results.getHitList()) {
+            final Map<String, Spannable> renderedAttributes = new HashMap<>(attributes.size());
+            for (String attribute : attributes) {
+                final Spannable rendered = render(hit, attribute);
+                if (rendered != null) {
+                    renderedAttributes.put(attribute, rendered);
+                }
+            }
+            synchronized (renderedHits) {
+                renderedHits.put(hit, renderedAttributes);
+            }
+        }
+    }
+
+    /**
+     * Gets a hit's highlighted attribute, rendering it if it was not already.
+     *
+     * @param hit       a hit to display.
+     * @param attribute the attribute to highlight.
+     * @return the rendered attribute, or {@code null} if the hit has no such attribute.
+     */
+    @Nullable
+    public Spannable get(@NonNull JSONObject hit, @NonNull String attribute) {
+        synchronized (renderedHits) {
+            final Map<String, Spannable> renderedAttributes = renderedHits.get(hit);
+            if (renderedAttributes != null && renderedAttributes.containsKey(attribute)) {
+                return renderedAttributes.get(attribute);
+            }
+        }
+        final Spannable rendered = render(hit, attribute);
+        synchronized (renderedHits) {
+            Map<String, Spannable> renderedAttributes = renderedHits.get(hit);
+            if (renderedAttributes == null) {
+                renderedAttributes = new HashMap<>();
+                renderedHits.put(hit, renderedAttributes);
+            }
+            renderedAttributes.put(attribute, rendered);
+        }
+        return rendered;
+    }
+
+    /**
+     * Evicts every hit except the given ones.
+     *
+     * @param hits the hits still displayed.
+     */
+    public void retain(@NonNull Collection<JSONObject> hits) {
+        final Map<JSONObject, Boolean> retainedHits = new IdentityHashMap<>(hits.size());
+        for (JSONObject hit : hits) {
+            retainedHits.put(hit, Boolean.TRUE);
+        }
+        synchronized (renderedHits) {
+            final Iterator<JSONObject> iterator = renderedHits.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (!retainedHits.containsKey(iterator.next())) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Evicts every hit.
+     */
+    public void clear() {
+        synchronized (renderedHits) {
+            renderedHits.clear();
+        }
+    }
+
+    @Nullable
+    private Spannable render(@NonNull JSONObject hit, @NonNull String attribute) {
+        final Integer colorId = RenderingHelper.getDefault().getHighlightColor(attribute);
+        return Highlighter.getDefault().renderHighlightColor(hit, attribute, getColor(colorId != null && colorId != 0 ? colorId : R.color.colorHighlighting));
+    }
+
+    private @ColorInt int getColor(@ColorRes int colorId) {
+        synchronized (colors) {
+            final int index = colors.indexOfKey(colorId);
+            if (index >= 0) {
+                return colors.valueAt(index);
+            }
+        }
+        final int color;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            color = context.getResources().getColor(colorId, context.getTheme());
+        } else {
+            //noinspection deprecation
+            color = context.getResources().getColor(colorId);
+        }
+        synchronized (colors) {
+            colors.put(colorId, color);
+        }
+        return color;
+    }
+}
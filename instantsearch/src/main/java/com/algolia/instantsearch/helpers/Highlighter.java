@@ -30,9 +30,11 @@ import android.support.annotation.ColorRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.text.Spannable;
+import android.text.SpannableString;
 import android.text.SpannableStringBuilder;
 import android.text.Spanned;
 import android.text.style.BackgroundColorSpan;
+import android.util.SparseArray;
 
 import com.algolia.instantsearch.R;
 import com.algolia.instantsearch.utils.JSONUtils;
@@ -40,18 +42,36 @@ import com.algolia.instantsearch.utils.JSONUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.util.HashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 
 /**
  * Renders HTML-like attributed strings into {@link Spannable} instances suitable for display.
+ * <p>
+ * Highlighters built from prefix and postfix tags scan the string for them in a single pass,
+ * while highlighters built from a custom regexp use it to find the parts to highlight.
  */
 public class Highlighter {
     private static Highlighter defaultHighlighter;
-    /** The pattern used for matching a part to highlight in a string. */
+    /** The pattern used for matching a part to highlight in a string, or {@code null} if using tags. */
+    @Nullable
     private final Pattern pattern;
+    /** The tags surrounding a part to highlight, or {@code null} if using a custom pattern. */
+    @Nullable
+    private final String prefixTag;
+    @Nullable
+    private final String postfixTag;
+
+    /** The spans used for each color, by order of appearance: as they hold no state, they are shared between rendered strings. */
+    private static final SparseArray<BackgroundColorSpan[]> sharedSpans = new SparseArray<>();
+    /** The buffers used while rendering, reused between renderings on a same thread. */
+    private static final ThreadLocal<RenderBuffer> renderBuffers = new ThreadLocal<RenderBuffer>() {
+        @Override
+        protected RenderBuffer initialValue() {
+            return new RenderBuffer();
+        }
+    };
 
     /**
      * Gets the default highlighter.
@@ -93,6 +113,8 @@ public class Highlighter {
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public Highlighter(String regexp) {
         this.pattern = Pattern.compile(regexp);
+        this.prefixTag = null;
+        this.postfixTag = null;
     }
 
     /**
@@ -102,8 +124,13 @@ public class Highlighter {
      * @param postfixTag the String that is inserted after a highlighted part of a result.
      */
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
-    public Highlighter(String prefixTag, String postfixTag) {
-        this(prefixTag + "(.*?)" + postfixTag);
+    public Highlighter(@NonNull String prefixTag, @NonNull String postfixTag) {
+        if (prefixTag.isEmpty() || postfixTag.isEmpty()) {
+            throw new IllegalArgumentException("Highlighting tags should not be empty.");
+        }
+        this.pattern = null;
+        this.prefixTag = prefixTag;
+        this.postfixTag = postfixTag;
     }
 
     /**
@@ -195,6 +222,9 @@ public class Highlighter {
         if (markupString == null) {
             return null;
         }
+        if (pattern == null) {
+            return renderTags(markupString, color);
+        }
 
         SpannableStringBuilder result = new SpannableStringBuilder();
         Matcher matcher = pattern.matcher(markupString);
@@ -221,6 +251,74 @@ public class Highlighter {
         return result;
     }
 
+    /** Renders a highlighted text by scanning it for the {@link #prefixTag} and {@link #postfixTag}. */
+    @NonNull
+    private Spannable renderTags(@NonNull String markupString, @ColorInt int color) {
+        //noinspection ConstantConditions: tags are set when there is no pattern
+        int start = markupString.indexOf(prefixTag);
+        if (start == -1) {
+            return new SpannableString(markupString);
+        }
+
+        final RenderBuffer buffer = renderBuffers.get();
+        final StringBuilder text = buffer.text;
+        text.setLength(0);
+        buffer.rangeCount = 0;
+        final int prefixLength = prefixTag.length();
+        //noinspection ConstantConditions
+        final int postfixLength = postfixTag.length();
+        int posIn = 0; // current position in input string
+
+        // For each highlight:
+        while (start != -1) {
+            final int end = markupString.indexOf(postfixTag, start + prefixLength);
+            if (end == -1) {
+                break; // Unclosed tag, left as is
+            }
+            text.append(markupString, posIn, start);
+            final int highlightStart = text.length();
+            text.append(markupString, start + prefixLength, end);
+            if (text.length() > highlightStart) {
+                buffer.addRange(highlightStart, text.length());
+            }
+            posIn = end + postfixLength;
+            start = markupString.indexOf(prefixTag, posIn);
+        }
+        // Append text after.
+        text.append(markupString, posIn, markupString.length());
+
+        final SpannableString result = new SpannableString(text);
+        final BackgroundColorSpan[] spans = getSpans(color, buffer.rangeCount);
+        for (int i = 0; i < buffer.rangeCount; i++) {
+            result.setSpan(spans[i], buffer.ranges[2 * i], buffer.ranges[2 * i + 1], Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        }
+        return result;
+    }
+
+    /**
+     * Gets spans of the given color, sharing them between rendered strings.
+     * A span can only be set once on a given string, hence one distinct span per highlighted part.
+     */
+    @NonNull
+    private static BackgroundColorSpan[] getSpans(@ColorInt int color, int count) {
+        synchronized (sharedSpans) {
+            BackgroundColorSpan[] spans = sharedSpans.get(color);
+            if (spans == null || spans.length < count) {
+                final BackgroundColorSpan[] newSpans = new BackgroundColorSpan[Math.max(count, spans == null ? 4 : spans.length * 2)];
+                final int existingCount = spans == null ? 0 : spans.length;
+                if (spans != null) {
+                    System.arraycopy(spans, 0, newSpans, 0, existingCount);
+                }
+                for (int i = existingCount; i < newSpans.length; i++) {
+                    newSpans[i] = new BackgroundColorSpan(color);
+                }
+                sharedSpans.put(color, newSpans);
+                spans = newSpans;
+            }
+            return spans;
+        }
+    }
+
     /**
      * Gets the highlighted version of an attribute, if there is one.
      *
@@ -231,9 +329,9 @@ public class Highlighter {
     private static String getHighlightedAttribute(@NonNull JSONObject result, String attributeName) {
         final JSONObject highlightResult = result.optJSONObject("_highlightResult");
         if (highlightResult != null) {
-            HashMap<String, String> highlightAttribute = JSONUtils.getMapFromJSONPath(highlightResult, attributeName);
+            JSONObject highlightAttribute = JSONUtils.getJSONObjectFromJSONPath(highlightResult, attributeName);
             if (highlightAttribute != null) {
-                String highlightedValue = highlightAttribute.get("value");
+                String highlightedValue = highlightAttribute.optString("value", null);
                 if (highlightedValue != null) {
                     return highlightedValue;
                 }
@@ -269,4 +367,23 @@ public class Highlighter {
         }
         return colorHighlighting;
     }
+
+    /** The text and highlighted ranges of a string being rendered. */
+    private static class RenderBuffer {
+        final StringBuilder text = new StringBuilder();
+        /** The start and end of each highlighted range, in the rendered text. */
+        int[] ranges = new int[16];
+        int rangeCount;
+
+        void addRange(int start, int end) {
+            if (2 * rangeCount + 1 >= ranges.length) {
+                final int[] newRanges = new int[ranges.length * 2];
+                System.arraycopy(ranges, 0, newRanges, 0, ranges.length);
+                ranges = newRanges;
+            }
+            ranges[2 * rangeCount] = start;
+            ranges[2 * rangeCount + 1] = end;
+            rangeCount++;
+        }
+    }
 }
\ No newline at end of file
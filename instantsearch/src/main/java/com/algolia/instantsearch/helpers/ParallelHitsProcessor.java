@@ -0,0 +1,179 @@
+package com.algolia.instantsearch.helpers;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.algolia.instantsearch.model.ResultsProcessor;
+import com.algolia.instantsearch.model.SearchResults;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decodes the hits of large pages in parallel chunks, on a pool sized to the device's cores.
+ * <p>
+ * Each hit goes through a {@link HitDecoder}, and the decoded hits are merged in order into the
+ * {@link SearchResults#getHitList() hit list} displayed by {@link com.algolia.instantsearch.ui.views.Hits Hits}.
+ * Pages smaller than the {@link #DEFAULT_PARALLEL_THRESHOLD threshold} are decoded serially, as dispatching them would cost more
+ * than it saves: see {@code ParallelHitsProcessorTest#benchmark} to measure the crossover point for your records.
+ * <p>
+ * Register it with {@link Searcher#addResultsProcessor(ResultsProcessor)}, along with a
+ * {@link Searcher#setProcessingExecutor processing executor} so that the calling thread is not the main thread.
+ * Add it before linking the Searcher to {@link com.algolia.instantsearch.ui.views.Hits Hits}, whose {@link HighlightCache} reads the hit list.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ParallelHitsProcessor implements ResultsProcessor {
+    /** Default amount of hits under which a page is decoded serially. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 200;
+    /** Default amount of hits decoded by each task. */
+    public static final int DEFAULT_CHUNK_SIZE = 50;
+
+    private static final int CORE_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors());
+    /** The pool shared by every processor, created on first use. */
+    private static ThreadPoolExecutor pool;
+
+    /** Decodes a hit. */
+    public interface HitDecoder {
+        /**
+         * Decodes a hit, called concurrently from several threads.
+         * <p>
+         * A hit whose decoding throws a RuntimeException is logged and skipped, as if it was decoded as {@code null}.
+         *
+         * @param hit a hit from the response, which should not be modified.
+         * @return the hit to display, or {@code null} to skip it.
+         */
+        @Nullable
+        JSONObject decode(@NonNull JSONObject hit);
+    }
+
+    @NonNull
+    private final HitDecoder decoder;
+    private final int parallelThreshold;
+    private final int chunkSize;
+
+    /**
+     * Constructs a processor with the default threshold and chunk size.
+     *
+     * @param decoder the decoder to apply to each hit.
+     */
+    public ParallelHitsProcessor(@NonNull HitDecoder decoder) {
+        this(decoder, DEFAULT_PARALLEL_THRESHOLD, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a processor.
+     *
+     * @param decoder           the decoder to apply to each hit.
+     * @param parallelThreshold the amount of hits from which a page is decoded in parallel.
+     * @param chunkSize         the amount of hits decoded by each task.
+     * @throws IllegalArgumentException if chunkSize is not positive.
+     */
+    public ParallelHitsProcessor(@NonNull HitDecoder decoder, int parallelThreshold, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize (" + chunkSize + ") should be positive.");
+        }
+        this.decoder = decoder;
+        this.parallelThreshold = parallelThreshold;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void process(@NonNull SearchResults results) {
+        final JSONArray hits = results.content.optJSONArray("hits"); // The response's hits, even if the public field was reassigned
+        if (hits == null) {
+            return;
+        }
+        if (hits.length() < parallelThreshold || CORE_COUNT == 1) {
+            results.setHitList(decode(hits, 0, hits.length()));
+        } else {
+            results.setHitList(decodeInParallel(hits));
+        }
+    }
+
+    @NonNull
+    private List<JSONObject> decodeInParallel(@NonNull final JSONArray hits) {
+        final int length = hits.length();
+        final List<Future<List<JSONObject>>> futures = new ArrayList<>();
+        // The first chunk is decoded on the calling thread, which would otherwise wait idle
+        for (int start = chunkSize; start < length; start += chunkSize) {
+            final int chunkStart = start;
+            final int chunkEnd = Math.min(start + chunkSize, length);
+            futures.add(getPool().submit(new Callable<List<JSONObject>>() {
+                @Override
+                public List<JSONObject> call() {
+                    return decode(hits, chunkStart, chunkEnd);
+                }
+            }));
+        }
+
+        final List<JSONObject> hitList = decode(hits, 0, Math.min(chunkSize, length));
+        try {
+            for (Future<List<JSONObject>> future : futures) {
+                hitList.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Future<List<JSONObject>> future : futures) {
+                future.cancel(true);
+            }
+            return decode(hits, 0, length);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error while decoding hits.", e.getCause());
+        }
+        return hitList;
+    }
+
+    @NonNull
+    private List<JSONObject> decode(@NonNull JSONArray hits, int start, int end) {
+        final List<JSONObject> chunk = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            final JSONObject hit = hits.optJSONObject(i);
+            if (hit != null) {
+                final JSONObject decodedHit = decodeHit(hit);
+                if (decodedHit != null) {
+                    chunk.add(decodedHit);
+                }
+            }
+        }
+        return chunk;
+    }
+
+    @Nullable
+    private JSONObject decodeHit(@NonNull JSONObject hit) {
+        try {
+            return decoder.decode(hit);
+        } catch (RuntimeException e) { // A single invalid record should not fail the whole page
+            Log.e("Algolia|HitsProcessor", "Could not decode hit " + hit.optString("objectID") + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    @NonNull
+    private static synchronized ThreadPoolExecutor getPool() {
+        if (pool == null) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            pool = new ThreadPoolExecutor(CORE_COUNT, CORE_COUNT, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "Algolia|HitsDecoder-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            pool.allowCoreThreadTimeOut(true); // Don't keep threads alive between searches
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,177 @@
+package com.algolia.instantsearch.helpers;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Narrows down a response's hits locally when the query is extended, e.g. from "iph" to "ipho".
+ * <p>
+ * The resulting hits are only a preview: they are a subset of the previous ones, so hits that would only match
+ * the extended query (for example through typo tolerance or synonyms) are missing until the actual response arrives.
+ */
+class PrefixNarrower {
+    private static final String HIGHLIGHT_RESULT = "_highlightResult";
+
+    private PrefixNarrower() {
+    }
+
+    /**
+     * Checks if a query extends a previous one, meaning its results can be narrowed from the previous results.
+     *
+     * @param previousQuery the query text of the previous response.
+     * @param newQuery      the new query text.
+     * @return {@code true} if newQuery starts with previousQuery and is longer.
+     */
+    static boolean isExtension(@Nullable String previousQuery, @Nullable String newQuery) {
+        return previousQuery != null && newQuery != null
+                && newQuery.length() > previousQuery.length() && newQuery.startsWith(previousQuery);
+    }
+
+    /**
+     * Narrows a response to the hits matching every word of an extended query.
+     *
+     * @param content  a search response for a previous query.
+     * @param newQuery the extended query text.
+     * @return a copy of the response containing only the matching hits, or {@code null} if none matches.
+     */
+    @Nullable
+    static JSONObject narrow(@NonNull JSONObject content, @NonNull String newQuery) {
+        final JSONArray hits = content.optJSONArray("hits");
+        final List<String> queryWords = tokenize(newQuery);
+        if (hits == null || queryWords.isEmpty()) {
+            return null;
+        }
+
+        final JSONArray narrowedHits = new JSONArray();
+        for (int i = 0; i < hits.length(); i++) {
+            final JSONObject hit = hits.optJSONObject(i);
+            if (hit != null && matches(hit, queryWords)) {
+                narrowedHits.put(hit);
+            }
+        }
+        if (narrowedHits.length() == 0) {
+            return null;
+        }
+
+        try {
+            final JSONObject narrowed = new JSONObject(content, getNames(content));
+            return narrowed.put("hits", narrowedHits)
+                    .put("nbHits", narrowedHits.length())
+                    .put("nbPages", 1)
+                    .put("page", 0)
+                    .put("query", newQuery);
+        } catch (JSONException e) {
+            return null; // Cannot happen with non-null keys
+        }
+    }
+
+    /**
+     * Checks if every query word prefixes a word of the hit's highlighted values, or of its raw values if it has none.
+     */
+    static boolean matches(@NonNull JSONObject hit, @NonNull List<String> queryWords) {
+        final JSONObject highlightResult = hit.optJSONObject(HIGHLIGHT_RESULT);
+        final List<String> recordWords = new ArrayList<>();
+        collectWords(highlightResult != null ? highlightResult : hit, recordWords);
+
+        for (String queryWord : queryWords) {
+            boolean found = false;
+            for (String recordWord : recordWords) {
+                if (recordWord.startsWith(queryWord)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Collects the words of every string value, ignoring highlighting metadata. */
+    private static void collectWords(@Nullable Object value, @NonNull List<String> words) {
+        if (value instanceof JSONObject) {
+            final JSONObject object = (JSONObject) value;
+            final Iterator<String> keys = object.keys();
+            while (keys.hasNext()) {
+                final String key = keys.next();
+                if (!key.equals("matchLevel") && !key.equals("matchedWords") && !key.equals("fullyHighlighted")
+                        && !key.equals(HIGHLIGHT_RESULT) && !key.equals("_snippetResult") && !key.equals("_rankingInfo")) {
+                    collectWords(object.opt(key), words);
+                }
+            }
+        } else if (value instanceof JSONArray) {
+            final JSONArray array = (JSONArray) value;
+            for (int i = 0; i < array.length(); i++) {
+                collectWords(array.opt(i), words);
+            }
+        } else if (value instanceof String) {
+            words.addAll(tokenize(stripTags((String) value)));
+        }
+    }
+
+    /** Removes the highlighting tags, e.g. {@code <em>} and {@code </em>}. */
+    @NonNull
+    private static String stripTags(@NonNull String value) {
+        if (value.indexOf('<') == -1) {
+            return value;
+        }
+        final StringBuilder builder = new StringBuilder(value.length());
+        boolean inTag = false;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '<') {
+                inTag = true;
+            } else if (c == '>' && inTag) {
+                inTag = false;
+            } else if (!inTag) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /** Splits a text into lower-case words without diacritics. */
+    @NonNull
+    static List<String> tokenize(@NonNull String text) {
+        final String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        final List<String> words = new ArrayList<>();
+        final StringBuilder word = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            final char c = normalized.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    @NonNull
+    private static String[] getNames(@NonNull JSONObject object) {
+        final String[] names = new String[object.length()];
+        final Iterator<String> keys = object.keys();
+        for (int i = 0; keys.hasNext(); i++) {
+            names[i] = keys.next();
+        }
+        return names;
+    }
+}
@@ -0,0 +1,186 @@
+package com.algolia.instantsearch.helpers;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Debounces search requests triggered by keystrokes before forwarding them to a {@link Searcher}.
+ * <p>
+ * The debouncing window adapts to the {@link Searcher#getAverageRoundTripTime() round-trip time} measured by the Searcher:
+ * on a fast network, queries are sent almost as soon as they are typed, while on a slow one intermediate keystrokes are
+ * skipped instead of firing requests that would be cancelled before their results are displayed.
+ * <p>
+ * In {@link #setLeadingEdge(boolean) leading edge mode}, the first keystroke after a pause is sent immediately
+ * and only the following ones are debounced.
+ */
+@SuppressWarnings("UnusedReturnValue") // chaining
+public class QueryScheduler {
+    /** Default minimum delay (in ms) between a keystroke and its search request. */
+    public static final int DEFAULT_MIN_DELAY = 50;
+    /** Default maximum delay (in ms) between a keystroke and its search request. */
+    public static final int DEFAULT_MAX_DELAY = 500;
+    /** Default share of the average round-trip time used as debouncing window. */
+    public static final float DEFAULT_LATENCY_FACTOR = 0.5f;
+
+    @NonNull
+    private final Searcher searcher;
+    @NonNull
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private int minDelay = DEFAULT_MIN_DELAY;
+    private int maxDelay = DEFAULT_MAX_DELAY;
+    private float latencyFactor = DEFAULT_LATENCY_FACTOR;
+    private boolean leadingEdge;
+
+    /** The query waiting for its debouncing window to expire, if any. */
+    @Nullable
+    private String pendingQuery;
+    /** The time of the last call to {@link #schedule(String)}, in ms since boot. */
+    private long lastScheduleTime;
+
+    /** The amount of queries that were scheduled. */
+    private int scheduledCount;
+    /** The amount of queries that were actually sent to the Searcher. */
+    private int sentCount;
+
+    private final Runnable sendPendingQuery = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    /**
+     * Constructs a scheduler forwarding its queries to the given Searcher.
+     *
+     * @param searcher the Searcher that will send the requests.
+     */
+    public QueryScheduler(@NonNull Searcher searcher) {
+        this.searcher = searcher;
+    }
+
+    /**
+     * Schedules a search for the given text, replacing any query still waiting to be sent.
+     *
+     * @param queryString a String to search on the index.
+     */
+    public void schedule(@Nullable String queryString) {
+        final long now = SystemClock.uptimeMillis();
+        final int delay = getDelay();
+        final boolean isIdle = pendingQuery == null && now - lastScheduleTime >= delay;
+        lastScheduleTime = now;
+        scheduledCount++;
+
+        handler.removeCallbacks(sendPendingQuery);
+        if (leadingEdge && isIdle) {
+            send(queryString);
+        } else {
+            pendingQuery = queryString == null ? "" : queryString;
+            handler.postDelayed(sendPendingQuery, delay);
+        }
+    }
+
+    /**
+     * Sends immediately the query waiting for its debouncing window to expire, if any.
+     */
+    public void flush() {
+        handler.removeCallbacks(sendPendingQuery);
+        if (pendingQuery != null) {
+            final String queryString = pendingQuery;
+            pendingQuery = null;
+            send(queryString);
+        }
+    }
+
+    /**
+     * Drops the query waiting for its debouncing window to expire, if any.
+     */
+    public void cancel() {
+        handler.removeCallbacks(sendPendingQuery);
+        pendingQuery = null;
+    }
+
+    /**
+     * Checks if a query is waiting for its debouncing window to expire.
+     *
+     * @return {@code true} if a query will be sent later.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public boolean hasPendingQuery() {
+        return pendingQuery != null;
+    }
+
+    /**
+     * Gets the current debouncing window, computed from the Searcher's average round-trip time.
+     *
+     * @return a delay in milliseconds.
+     */
+    public int getDelay() {
+        return computeDelay(searcher.getAverageRoundTripTime());
+    }
+
+    /**
+     * Enables or disables the leading edge mode.
+     *
+     * @param leadingEdge if {@code true}, the first keystroke after a pause will be sent without delay.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public QueryScheduler setLeadingEdge(boolean leadingEdge) {
+        this.leadingEdge = leadingEdge;
+        return this;
+    }
+
+    /**
+     * Sets the bounds of the debouncing window.
+     *
+     * @param minDelay the minimum delay in milliseconds.
+     * @param maxDelay the maximum delay in milliseconds.
+     * @throws IllegalArgumentException if the bounds are negative or inverted.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public QueryScheduler setDelayBounds(int minDelay, int maxDelay) {
+        if (minDelay < 0 || maxDelay < minDelay) {
+            throw new IllegalArgumentException("Invalid delay bounds: [" + minDelay + ", " + maxDelay + "].");
+        }
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        return this;
+    }
+
+    /**
+     * Sets which share of the average round-trip time should be used as debouncing window.
+     *
+     * @param latencyFactor a positive factor, {@link #DEFAULT_LATENCY_FACTOR 0.5} by default.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public QueryScheduler setLatencyFactor(float latencyFactor) {
+        if (latencyFactor < 0) {
+            throw new IllegalArgumentException("latencyFactor should be positive, got " + latencyFactor + ".");
+        }
+        this.latencyFactor = latencyFactor;
+        return this;
+    }
+
+    /**
+     * Gets the amount of scheduled queries that were never sent because a newer one replaced them.
+     *
+     * @return the amount of skipped queries since this scheduler was created.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public int getSkippedCount() {
+        return scheduledCount - sentCount - (pendingQuery != null ? 1 : 0);
+    }
+
+    int computeDelay(long roundTripTime) {
+        final long delay = (long) (roundTripTime * latencyFactor);
+        return (int) Math.max(minDelay, Math.min(maxDelay, delay));
+    }
+
+    private void send(@Nullable String queryString) {
+        sentCount++;
+        searcher.search(queryString);
+    }
+}
@@ -0,0 +1,403 @@
+package com.algolia.instantsearch.helpers;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.algolia.instantsearch.model.NumericRefinement;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of a {@link Searcher}'s facet, boolean and numeric refinements.
+ * <p>
+ * Every change returns a new state: its map of attributes is a copy, but the refinements of the unchanged attributes are
+ * the previous state's instances. Each attribute serializes its filters once when it is refined, so that the
+ * {@link #getFacetFilters() facetFilters} and {@link #getNumericFilters() numericFilters} of a state are built by concatenating these fragments.
+ * As states are immutable, they can be read from any thread: the values built on first use are only published once complete,
+ * through volatile fields. Their {@link #hashCode()} is computed only once.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class RefinementState {
+    /** A state without any refinement. */
+    public static final RefinementState EMPTY = new RefinementState(Collections.<String, AttributeRefinements>emptyMap());
+
+    /** The refinements of each refined attribute, in the order they were first refined. */
+    @NonNull
+    private final Map<String, AttributeRefinements> attributes;
+    private final int hashCode;
+
+    /** The serialized facetFilters, built on first use. */
+    private volatile String facetFilters;
+    /** The serialized numericFilters, built on first use. */
+    private volatile String numericFilters;
+    /** The facet refinements by attribute, built on first use. */
+    private volatile Map<String, List<String>> facetRefinements;
+
+    private RefinementState(@NonNull Map<String, AttributeRefinements> attributes) {
+        this.attributes = attributes;
+        this.hashCode = attributes.hashCode();
+    }
+
+    /**
+     * Checks if a facet refinement is enabled.
+     *
+     * @param attribute the attribute to check.
+     * @param value     the facet's value to check.
+     * @return {@code true} if {@code attribute} is refined with {@code value}.
+     */
+    public boolean hasFacetRefinement(@NonNull String attribute, @NonNull String value) {
+        final AttributeRefinements refinements = attributes.get(attribute);
+        return refinements != null && refinements.facetValues.contains(value);
+    }
+
+    /**
+     * Gets the facet refinements of every attribute.
+     *
+     * @return an unmodifiable Map associating attributes with their refined values.
+     */
+    @NonNull
+    public Map<String, List<String>> getFacetRefinements() {
+        Map<String, List<String>> refinements = facetRefinements;
+        if (refinements == null) { // Concurrent readers may build it twice, but only ever see a complete map
+            final Map<String, List<String>> map = new LinkedHashMap<>();
+            for (Map.Entry<String, AttributeRefinements> entry : attributes.entrySet()) {
+                final Set<String> values = entry.getValue().facetValues;
+                if (!values.isEmpty()) {
+                    map.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(values)));
+                }
+            }
+            refinements = Collections.unmodifiableMap(map);
+            facetRefinements = refinements;
+        }
+        return refinements;
+    }
+
+    /**
+     * Gets the boolean refinement of an attribute.
+     *
+     * @param attribute the attribute that may be refined.
+     * @return the refinement value, or {@code null} if there is none.
+     */
+    @Nullable
+    public Boolean getBooleanFilter(@NonNull String attribute) {
+        final AttributeRefinements refinements = attributes.get(attribute);
+        return refinements != null ? refinements.booleanValue : null;
+    }
+
+    /**
+     * Gets the numeric refinement of an attribute for an operator.
+     *
+     * @param attribute the attribute that may be refined.
+     * @param operator  one of the {@link NumericRefinement#OPERATOR_EQ operators} defined in {@link NumericRefinement}.
+     * @return the refinement, or {@code null} if there is none.
+     */
+    @Nullable
+    public NumericRefinement getNumericRefinement(@NonNull String attribute, int operator) {
+        final AttributeRefinements refinements = attributes.get(attribute);
+        return refinements != null ? refinements.numericRefinements[operator] : null;
+    }
+
+    /**
+     * Gets the facet and boolean refinements as the value of a {@code facetFilters} parameter.
+     *
+     * @return a serialized JSON array of filters, such as {@code ["brand:Apple","free_shipping:true"]}.
+     */
+    @NonNull
+    public String getFacetFilters() {
+        String filters = facetFilters;
+        if (filters == null) {
+            final StringBuilder builder = new StringBuilder("[");
+            for (AttributeRefinements refinements : attributes.values()) {
+                appendFragment(builder, refinements.facetFiltersFragment);
+            }
+            filters = builder.append(']').toString();
+            facetFilters = filters;
+        }
+        return filters;
+    }
+
+    /**
+     * Gets the numeric refinements as the value of a {@code numericFilters} parameter.
+     *
+     * @return a serialized JSON array of filters, such as {@code ["price<=42.000000"]}.
+     */
+    @NonNull
+    public String getNumericFilters() {
+        String filters = numericFilters;
+        if (filters == null) {
+            final StringBuilder builder = new StringBuilder("[");
+            for (AttributeRefinements refinements : attributes.values()) {
+                appendFragment(builder, refinements.numericFiltersFragment);
+            }
+            filters = builder.append(']').toString();
+            numericFilters = filters;
+        }
+        return filters;
+    }
+
+    /**
+     * Gets the facet and boolean refinements as the value of a {@code filters} parameter, where the values
+     * of disjunctive attributes are combined with {@code OR}.
+     * <p>
+     * Unlike disjunctive faceting, this needs a single request, but the facet counts of disjunctive attributes
+     * then only reflect the records matching their own refinements.
+     *
+     * @param disjunctiveAttributes the attributes whose values should be combined with {@code OR}.
+     * @return an expression such as {@code (brand:"A" OR brand:"B") AND color:"red"}, or an empty string if there is no refinement.
+     */
+    @NonNull
+    public String getFilters(@NonNull Collection<String> disjunctiveAttributes) {
+        final List<String> expressions = new ArrayList<>(attributes.size());
+        for (Map.Entry<String, AttributeRefinements> entry : attributes.entrySet()) {
+            final String expression = entry.getValue().getExpression(entry.getKey(), disjunctiveAttributes.contains(entry.getKey()));
+            if (!expression.isEmpty()) {
+                expressions.add(expression);
+            }
+        }
+        return FilterGroup.join(expressions, false);
+    }
+
+    /** Returns a state where {@code attribute} is also refined with {@code value}. */
+    @NonNull
+    public RefinementState withFacetRefinement(@NonNull String attribute, @NonNull String value) {
+        final AttributeRefinements current = get(attribute);
+        if (current.facetValues.contains(value)) {
+            return this;
+        }
+        final Set<String> values = new LinkedHashSet<>(current.facetValues);
+        values.add(value);
+        return with(attribute, new AttributeRefinements(attribute, values, current.booleanValue, current.numericRefinements));
+    }
+
+    /** Returns a state where {@code attribute} is not refined with {@code value} anymore. */
+    @NonNull
+    public RefinementState withoutFacetRefinement(@NonNull String attribute, @NonNull String value) {
+        final AttributeRefinements current = get(attribute);
+        if (!current.facetValues.contains(value)) {
+            return this;
+        }
+        final Set<String> values = new LinkedHashSet<>(current.facetValues);
+        values.remove(value);
+        return with(attribute, new AttributeRefinements(attribute, values, current.booleanValue, current.numericRefinements));
+    }
+
+    /** Returns a state where {@code attribute} is refined with exactly the given values. */
+    @NonNull
+    public RefinementState withFacetRefinements(@NonNull String attribute, @NonNull Iterable<String> values) {
+        final AttributeRefinements current = get(attribute);
+        final Set<String> valueSet = new LinkedHashSet<>();
+        for (String value : values) {
+            valueSet.add(value);
+        }
+        return with(attribute, new AttributeRefinements(attribute, valueSet, current.booleanValue, current.numericRefinements));
+    }
+
+    /** Returns a state without any facet refinement, keeping boolean and numeric refinements. */
+    @NonNull
+    public RefinementState withoutFacetRefinements() {
+        RefinementState state = this;
+        for (String attribute : attributes.keySet()) {
+            state = state.withFacetRefinements(attribute, Collections.<String>emptySet());
+        }
+        return state;
+    }
+
+    /** Returns a state where {@code attribute}'s boolean refinement is {@code value}, or removed if it is {@code null}. */
+    @NonNull
+    public RefinementState withBooleanFilter(@NonNull String attribute, @Nullable Boolean value) {
+        final AttributeRefinements current = get(attribute);
+        if (value == null ? current.booleanValue == null : value.equals(current.booleanValue)) {
+            return this;
+        }
+        return with(attribute, new AttributeRefinements(attribute, current.facetValues, value, current.numericRefinements));
+    }
+
+    /** Returns a state with the given numeric refinement, replacing any previous one for the same attribute and operator. */
+    @NonNull
+    public RefinementState withNumericRefinement(@NonNull NumericRefinement refinement) {
+        final AttributeRefinements current = get(refinement.attribute);
+        final NumericRefinement[] numericRefinements = Arrays.copyOf(current.numericRefinements, current.numericRefinements.length);
+        numericRefinements[refinement.operator] = refinement;
+        return with(refinement.attribute, new AttributeRefinements(refinement.attribute, current.facetValues, current.booleanValue, numericRefinements));
+    }
+
+    /** Returns a state without {@code attribute}'s numeric refinement for {@code operator}. */
+    @NonNull
+    public RefinementState withoutNumericRefinement(@NonNull String attribute, int operator) {
+        final AttributeRefinements current = get(attribute);
+        if (current.numericRefinements[operator] == null) {
+            return this;
+        }
+        final NumericRefinement[] numericRefinements = Arrays.copyOf(current.numericRefinements, current.numericRefinements.length);
+        numericRefinements[operator] = null;
+        return with(attribute, new AttributeRefinements(attribute, current.facetValues, current.booleanValue, numericRefinements));
+    }
+
+    /** Returns a state without any of {@code attribute}'s numeric refinements. */
+    @NonNull
+    public RefinementState withoutNumericRefinements(@NonNull String attribute) {
+        final AttributeRefinements current = get(attribute);
+        return with(attribute, new AttributeRefinements(attribute, current.facetValues, current.booleanValue, AttributeRefinements.NO_NUMERIC_REFINEMENTS));
+    }
+
+    /** Returns a state without any numeric refinement, keeping facet and boolean refinements. */
+    @NonNull
+    public RefinementState withoutNumericRefinements() {
+        RefinementState state = this;
+        for (String attribute : attributes.keySet()) {
+            state = state.withoutNumericRefinements(attribute);
+        }
+        return state;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final RefinementState that = (RefinementState) o;
+        return hashCode == that.hashCode && attributes.equals(that.attributes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "RefinementState{facetFilters=" + getFacetFilters() + ", numericFilters=" + getNumericFilters() + "}";
+    }
+
+    @NonNull
+    private AttributeRefinements get(@NonNull String attribute) {
+        final AttributeRefinements refinements = attributes.get(attribute);
+        return refinements != null ? refinements : AttributeRefinements.NONE;
+    }
+
+    /** Returns a state with a copy of the attribute map, sharing every attribute's refinements but the given one's. */
+    @NonNull
+    private RefinementState with(@NonNull String attribute, @NonNull AttributeRefinements refinements) {
+        final Map<String, AttributeRefinements> newAttributes = new LinkedHashMap<>(attributes);
+        if (refinements.isEmpty()) {
+            newAttributes.remove(attribute);
+        } else {
+            newAttributes.put(attribute, refinements);
+        }
+        return new RefinementState(Collections.unmodifiableMap(newAttributes));
+    }
+
+    private static void appendFragment(@NonNull StringBuilder builder, @NonNull String fragment) {
+        if (fragment.isEmpty()) {
+            return;
+        }
+        final int length = builder.length();
+        if (length != 0 && builder.charAt(length - 1) != '[') {
+            builder.append(',');
+        }
+        builder.append(fragment);
+    }
+
+    /** The refinements of one attribute, serialized once on construction. */
+    private static final class AttributeRefinements {
+        static final NumericRefinement[] NO_NUMERIC_REFINEMENTS = new NumericRefinement[NumericRefinement.OPERATOR_GT + 1];
+        static final AttributeRefinements NONE = new AttributeRefinements("", Collections.<String>emptySet(), null, NO_NUMERIC_REFINEMENTS);
+
+        @NonNull final Set<String> facetValues;
+        @Nullable final Boolean booleanValue;
+        /** The numeric refinements, indexed by operator. */
+        @NonNull final NumericRefinement[] numericRefinements;
+
+        @NonNull final String facetFiltersFragment;
+        @NonNull final String numericFiltersFragment;
+
+        /** The {@code filters} expressions of the facet and boolean refinements, compiled on first use. */
+        private volatile String conjunctiveExpression;
+        private volatile String disjunctiveExpression;
+
+        AttributeRefinements(@NonNull String attribute, @NonNull Set<String> facetValues, @Nullable Boolean booleanValue, @NonNull NumericRefinement[] numericRefinements) {
+            this.facetValues = Collections.unmodifiableSet(facetValues);
+            this.booleanValue = booleanValue;
+            this.numericRefinements = numericRefinements;
+
+            final StringBuilder facetBuilder = new StringBuilder();
+            for (String value : facetValues) {
+                appendFragment(facetBuilder, JSONObject.quote(attribute + ":" + value));
+            }
+            if (booleanValue != null) {
+                appendFragment(facetBuilder, JSONObject.quote(attribute + ":" + booleanValue));
+            }
+            facetFiltersFragment = facetBuilder.toString();
+
+            final StringBuilder numericBuilder = new StringBuilder();
+            for (NumericRefinement refinement : numericRefinements) {
+                if (refinement != null) {
+                    appendFragment(numericBuilder, JSONObject.quote(refinement.toString()));
+                }
+            }
+            numericFiltersFragment = numericBuilder.toString();
+        }
+
+        boolean isEmpty() {
+            return facetFiltersFragment.isEmpty() && numericFiltersFragment.isEmpty();
+        }
+
+        @NonNull
+        String getExpression(@NonNull String attribute, boolean disjunctive) {
+            String expression = disjunctive ? disjunctiveExpression : conjunctiveExpression;
+            if (expression == null) {
+                final List<String> facetFilters = new ArrayList<>(facetValues.size());
+                for (String value : facetValues) {
+                    facetFilters.add(FilterGroup.facetFilter(attribute, value, false));
+                }
+                final List<String> filters;
+                if (disjunctive && facetFilters.size() > 1) {
+                    filters = new ArrayList<>(2);
+                    filters.add(FilterGroup.join(facetFilters, true));
+                } else {
+                    filters = facetFilters;
+                }
+                if (booleanValue != null) {
+                    filters.add(attribute + ":" + booleanValue);
+                }
+                expression = FilterGroup.join(filters, false);
+                if (disjunctive) {
+                    disjunctiveExpression = expression;
+                } else {
+                    conjunctiveExpression = expression;
+                }
+            }
+            return expression;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final AttributeRefinements that = (AttributeRefinements) o;
+            return facetFiltersFragment.equals(that.facetFiltersFragment) && numericFiltersFragment.equals(that.numericFiltersFragment);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * facetFiltersFragment.hashCode() + numericFiltersFragment.hashCode();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.algolia.instantsearch.helpers;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.algolia.search.saas.AlgoliaException;
+import com.algolia.search.saas.CompletionHandler;
+import com.algolia.search.saas.Request;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shares in-flight requests between identical searches, so that they are sent only once.
+ * <p>
+ * Each caller gets its own {@link Request}: cancelling it detaches the caller, and the shared request is only
+ * cancelled once every caller is detached. When the response arrives, it is delivered to the most recent caller first.
+ */
+class RequestCoalescer {
+    /** The requests in flight, by {@link ResponseCache#getKey request key}. */
+    private final Map<String, InFlightRequest> inFlightRequests = new HashMap<>();
+    /** The amount of searches that were attached to an identical in-flight request instead of being sent. */
+    private int coalescedCount;
+
+    /**
+     * Attaches a caller to an identical request if one is in flight.
+     *
+     * @param key     the key of the request, see {@link ResponseCache#getKey}.
+     * @param handler the handler to call with the response.
+     * @return a Request for this caller, or {@code null} if no identical request is in flight.
+     */
+    @Nullable
+    Request attach(@NonNull String key, @NonNull CompletionHandler handler) {
+        final InFlightRequest inFlightRequest = inFlightRequests.get(key);
+        if (inFlightRequest == null) {
+            return null;
+        }
+        coalescedCount++;
+        return inFlightRequest.attach(handler);
+    }
+
+    /**
+     * Starts tracking a new request, which should be sent with the returned handler then {@link InFlightRequest#setRequest set}.
+     *
+     * @param key the key of the request, see {@link ResponseCache#getKey}.
+     * @return the InFlightRequest to send and to attach callers to.
+     */
+    @NonNull
+    InFlightRequest start(@NonNull String key) {
+        final InFlightRequest inFlightRequest = new InFlightRequest(key);
+        inFlightRequests.put(key, inFlightRequest);
+        return inFlightRequest;
+    }
+
+    int getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /** A request sent once on behalf of several callers, dispatching its response to each of them. */
+    class InFlightRequest implements CompletionHandler {
+        @NonNull private final String key;
+        @NonNull private final List<CallerRequest> callers = new ArrayList<>();
+        @Nullable private Request request;
+
+        private InFlightRequest(@NonNull String key) {
+            this.key = key;
+        }
+
+        void setRequest(@NonNull Request request) {
+            this.request = request;
+        }
+
+        @NonNull
+        Request attach(@NonNull CompletionHandler handler) {
+            final CallerRequest caller = new CallerRequest(this, handler);
+            callers.add(caller);
+            return caller;
+        }
+
+        @Override
+        public void requestCompleted(@Nullable JSONObject content, @Nullable AlgoliaException error) {
+            detach();
+            // Most recent callers first, as they usually cancel the older ones when handling the response
+            for (int i = callers.size() - 1; i >= 0; i--) {
+                final CallerRequest caller = callers.get(i);
+                if (!caller.cancelled) {
+                    caller.finished = true;
+                    caller.handler.requestCompleted(content, error);
+                }
+            }
+        }
+
+        private void onCallerCancelled(@NonNull CallerRequest caller) {
+            for (CallerRequest other : callers) {
+                if (!other.cancelled && !other.finished) {
+                    return;
+                }
+            }
+            detach();
+            if (request != null) {
+                request.cancel();
+            }
+        }
+
+        private void detach() {
+            if (inFlightRequests.get(key) == this) {
+                inFlightRequests.remove(key);
+            }
+        }
+    }
+
+    /** The Request given to one caller of an {@link InFlightRequest}. */
+    private static class CallerRequest implements Request {
+        @NonNull private final InFlightRequest inFlightRequest;
+        @NonNull private final CompletionHandler handler;
+        private boolean cancelled;
+        private boolean finished;
+
+        CallerRequest(@NonNull InFlightRequest inFlightRequest, @NonNull CompletionHandler handler) {
+            this.inFlightRequest = inFlightRequest;
+            this.handler = handler;
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled || finished) {
+                return;
+            }
+            cancelled = true;
+            inFlightRequest.onCallerCancelled(this);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.algolia.instantsearch.helpers;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.algolia.search.saas.Index;
+import com.algolia.search.saas.Query;
+
+import org.json.JSONObject;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the most recent search responses in memory, so that a {@link Searcher} can display them again without sending a request.
+ * <p>
+ * Responses are keyed by index name and serialized {@link Query}, including its filters and page.
+ * A ResponseCache can be shared by several Searchers: use {@link #getDefault()} to share responses across the whole application.
+ * <p>
+ * Responses can also be persisted by {@link #setDiskCache(DiskResponseCache) adding a disk tier}:
+ * they are then looked up on disk when missing from memory, and written to disk in the background.
+ * Use {@link #getAsync(String, LookupListener)} on the main thread, so that only the memory tier is checked synchronously.
+ * The disk tier is never accessed while holding this cache's lock, so that a slow disk does not block other threads using it.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ResponseCache {
+    /** Default maximum amount of responses kept in memory. */
+    public static final int DEFAULT_MAX_SIZE = 64;
+    /** Default duration (in ms) during which a response is considered valid. */
+    public static final long DEFAULT_TTL = 2 * 60 * 1000;
+
+    /** Separates the index name from the query parameters in a key. */
+    private static final char KEY_SEPARATOR = '?';
+
+    private static ResponseCache defaultCache;
+
+    private final int maxSize;
+    private final long ttl;
+    /** The cached responses, ordered from least to most recently accessed. */
+    private final LinkedHashMap<String, Entry> entries;
+    /** The eventual second tier of this cache. */
+    @Nullable
+    private DiskResponseCache diskCache;
+
+    private int hitCount;
+    private int missCount;
+
+    /** Runs the {@link LookupListener listeners} of asynchronous lookups. */
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Gets the default cache, shared by every Searcher using it.
+     *
+     * @return a ResponseCache using the {@link #DEFAULT_MAX_SIZE default size} and {@link #DEFAULT_TTL default TTL}.
+     */
+    public static synchronized ResponseCache getDefault() {
+        if (defaultCache == null) {
+            defaultCache = new ResponseCache(DEFAULT_MAX_SIZE, DEFAULT_TTL);
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Constructs a cache with the given bounds.
+     *
+     * @param maxSize the maximum amount of responses to keep, least recently used ones being evicted first.
+     * @param ttl     the duration in milliseconds during which a response can be reused.
+     * @throws IllegalArgumentException if maxSize is not strictly positive.
+     */
+    public ResponseCache(int maxSize, long ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize should be strictly positive, got " + maxSize + ".");
+        }
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        entries = new LinkedHashMap<String, Entry>(maxSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ResponseCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Computes the key identifying the response to a given request.
+     *
+     * @param index             the index targeted by the request.
+     * @param query             the query sent with the request.
+     * @param disjunctiveFacets the eventual disjunctive facets of the request.
+     * @return a key suitable for {@link #get(String)} and {@link #put(String, String, JSONObject)}.
+     */
+    @NonNull
+    public static String getKey(@NonNull Index index, @NonNull Query query, @Nullable List<String> disjunctiveFacets) {
+        final StringBuilder builder = new StringBuilder(index.getIndexName()).append(KEY_SEPARATOR).append(query.build());
+        if (disjunctiveFacets != null && !disjunctiveFacets.isEmpty()) {
+            builder.append("&disjunctiveFacets=").append(disjunctiveFacets);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets a cached response if there is a valid one.
+     * <p>
+     * Note that a response missing from memory is read from disk on the calling thread: on the main thread,
+     * use {@link #getAsync(String, LookupListener)} instead.
+     *
+     * @param key the key of the request, see {@link #getKey(Index, Query, List)}.
+     * @return the cached response, or {@code null} if there is none or it expired.
+     */
+    @Nullable
+    public JSONObject get(@NonNull String key) {
+        final DiskResponseCache diskCache;
+        synchronized (this) {
+            final JSONObject content = getFromMemory(key);
+            if (content != null) {
+                hitCount++;
+                return content;
+            }
+            diskCache = this.diskCache;
+        }
+        return onDiskLookup(key, diskCache != null ? diskCache.get(key) : null);
+    }
+
+    /**
+     * Gets a cached response if there is a valid one, without reading the disk on the calling thread.
+     * <p>
+     * Only the memory tier is checked synchronously. If the response is missing from memory, the disk tier is read in
+     * the background, then the listener is called on the main thread with the response found there or {@code null}.
+     * Without a disk tier, the listener is called right away with {@code null}.
+     *
+     * @param key      the key of the request, see {@link #getKey(Index, Query, List)}.
+     * @param listener the listener to call if the response is not in memory.
+     * @return the response cached in memory, or {@code null} if it is not there, in which case the listener will be called.
+     */
+    @Nullable
+    public JSONObject getAsync(@NonNull final String key, @NonNull final LookupListener listener) {
+        final DiskResponseCache diskCache;
+        synchronized (this) {
+            final JSONObject content = getFromMemory(key);
+            if (content != null) {
+                hitCount++;
+                return content;
+            }
+            diskCache = this.diskCache;
+            if (diskCache == null) {
+                missCount++;
+            }
+        }
+        if (diskCache == null) {
+            listener.onLookup(null);
+            return null;
+        }
+        diskCache.execute(new Runnable() {
+            @Override
+            public void run() {
+                final JSONObject content = onDiskLookup(key, diskCache.get(key));
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onLookup(content);
+                    }
+                });
+            }
+        });
+        return null;
+    }
+
+    /** Gets a valid response from memory, removing it if it expired. Should be called while holding this cache's lock. */
+    @Nullable
+    private JSONObject getFromMemory(@NonNull String key) {
+        final Entry entry = entries.get(key);
+        if (entry != null) {
+            if (SystemClock.elapsedRealtime() - entry.time < ttl) {
+                return entry.content;
+            }
+            entries.remove(key);
+        }
+        return null;
+    }
+
+    /** Records the result of a lookup that missed the memory tier, keeping in memory a response found on disk. */
+    @Nullable
+    private synchronized JSONObject onDiskLookup(@NonNull String key, @Nullable JSONObject content) {
+        if (content == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        final Entry entry = entries.get(key);
+        if (entry != null) {
+            return entry.content; // Stored meanwhile by another thread, it is at least as recent
+        }
+        entries.put(key, new Entry(key.substring(0, key.indexOf(KEY_SEPARATOR)), content, SystemClock.elapsedRealtime()));
+        return content;
+    }
+
+    /**
+     * Stores a response, evicting the least recently used one if the cache is full.
+     *
+     * @param key       the key of the request, see {@link #getKey(Index, Query, List)}.
+     * @param indexName the name of the index targeted by the request.
+     * @param content   the response to store.
+     */
+    public void put(@NonNull String key, @NonNull String indexName, @NonNull JSONObject content) {
+        final DiskResponseCache diskCache;
+        synchronized (this) {
+            entries.put(key, new Entry(indexName, content, SystemClock.elapsedRealtime()));
+            diskCache = this.diskCache;
+        }
+        if (diskCache != null) {
+            diskCache.putAsync(key, indexName, content);
+        }
+    }
+
+    /**
+     * Removes every cached response for a given index, from disk in the background.
+     *
+     * @param indexName the index whose responses should be removed.
+     */
+    public void invalidate(@NonNull String indexName) {
+        final DiskResponseCache diskCache;
+        synchronized (this) {
+            final Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (indexName.equals(iterator.next().indexName)) {
+                    iterator.remove();
+                }
+            }
+            diskCache = this.diskCache;
+        }
+        if (diskCache != null) {
+            diskCache.invalidateAsync(indexName);
+        }
+    }
+
+    /**
+     * Removes every cached response, from disk in the background.
+     */
+    public void clear() {
+        final DiskResponseCache diskCache;
+        synchronized (this) {
+            entries.clear();
+            diskCache = this.diskCache;
+        }
+        if (diskCache != null) {
+            diskCache.clearAsync();
+        }
+    }
+
+    /**
+     * Adds a disk tier to this cache, or removes it.
+     * <p>
+     * Note that {@link #get(String)} then reads responses missing from memory on the calling thread, unlike {@link #getAsync(String, LookupListener)}.
+     *
+     * @param diskCache a {@link DiskResponseCache} persisting responses, or {@code null} to keep them in memory only.
+     */
+    public synchronized void setDiskCache(@Nullable DiskResponseCache diskCache) {
+        this.diskCache = diskCache;
+    }
+
+    /**
+     * Gets the amount of responses currently cached.
+     *
+     * @return the amount of entries in this cache, including eventually expired ones.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the amount of requests that could be answered by this cache.
+     *
+     * @return the amount of successful lookups since this cache was created.
+     */
+    public synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the amount of requests that could not be answered by this cache.
+     *
+     * @return the amount of failed lookups since this cache was created.
+     */
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /** Receives the result of a lookup in the disk tier. */
+    public interface LookupListener {
+        /**
+         * Called on the main thread once the disk tier was read.
+         *
+         * @param content the cached response, or {@code null} if there is none or it expired.
+         */
+        void onLookup(@Nullable JSONObject content);
+    }
+
+    private static class Entry {
+        @NonNull final String indexName;
+        @NonNull final JSONObject content;
+        final long time;
+
+        Entry(@NonNull String indexName, @NonNull JSONObject content, long time) {
+            this.indexName = indexName;
+            this.content = content;
+            this.time = time;
+        }
+    }
+}
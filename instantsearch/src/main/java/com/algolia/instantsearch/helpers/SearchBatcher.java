@@ -0,0 +1,265 @@
+package com.algolia.instantsearch.helpers;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.algolia.search.saas.AlgoliaException;
+import com.algolia.search.saas.Client;
+import com.algolia.search.saas.CompletionHandler;
+import com.algolia.search.saas.Index;
+import com.algolia.search.saas.IndexQuery;
+import com.algolia.search.saas.Query;
+import com.algolia.search.saas.Request;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups the searches of several {@link Searcher Searchers} issued within a short window into a single multiple-queries request.
+ * <p>
+ * A screen displaying main hits, suggestions and a category rail usually fires its searches at the same moment:
+ * batching them saves connections and round-trips. Each Searcher still receives its own response in its own
+ * {@link CompletionHandler}, and can {@link Request#cancel() cancel} its request independently of the others.
+ */
+@SuppressWarnings("WeakerAccess")
+public class SearchBatcher {
+    /** Default batching window (in ms), matching one frame at 60fps. */
+    public static final int DEFAULT_WINDOW = 16;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final int window;
+    /** The searches waiting for the current window to end. */
+    private final List<BatchedRequest> pendingRequests = new ArrayList<>();
+
+    /** The amount of requests that were sent on behalf of several searches. */
+    private int batchCount;
+    /** The amount of searches that were sent as part of a batch. */
+    private int batchedSearchCount;
+
+    private final Runnable flushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    /**
+     * Constructs a batcher with the {@link #DEFAULT_WINDOW default window}.
+     */
+    public SearchBatcher() {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * Constructs a batcher with the given window.
+     *
+     * @param window the duration in milliseconds during which searches are collected before being sent together.
+     */
+    public SearchBatcher(int window) {
+        this.window = window;
+    }
+
+    /**
+     * Registers Searchers so that their searches get batched by this SearchBatcher.
+     *
+     * @param searchers one or several Searchers.
+     */
+    public void register(@NonNull Searcher... searchers) {
+        for (Searcher searcher : searchers) {
+            searcher.setSearchBatcher(this);
+        }
+    }
+
+    /**
+     * Unregisters Searchers, which will then send their searches on their own.
+     *
+     * @param searchers one or several Searchers.
+     */
+    public void unregister(@NonNull Searcher... searchers) {
+        for (Searcher searcher : searchers) {
+            searcher.setSearchBatcher(null);
+        }
+    }
+
+    /**
+     * Schedules a search to be sent with the other searches of the current window.
+     *
+     * @param index             the index to target.
+     * @param query             the query to send, which is copied so later modifications are ignored.
+     * @param completionHandler the handler to call with this search's response.
+     * @return a Request that can be cancelled without affecting the other searches.
+     */
+    @NonNull
+    public Request searchAsync(@NonNull Index index, @NonNull Query query, @NonNull CompletionHandler completionHandler) {
+        final BatchedRequest request = new BatchedRequest(index, new Query(query), completionHandler);
+        pendingRequests.add(request);
+        if (pendingRequests.size() == 1) {
+            handler.postDelayed(flushRunnable, window);
+        }
+        return request;
+    }
+
+    /**
+     * Sends immediately the searches of the current window.
+     */
+    public void flush() {
+        handler.removeCallbacks(flushRunnable);
+        final Map<Client, List<BatchedRequest>> requestsByClient = new HashMap<>();
+        for (BatchedRequest request : pendingRequests) {
+            if (request.isCancelled()) {
+                continue;
+            }
+            final Client client = request.index.getClient();
+            List<BatchedRequest> clientRequests = requestsByClient.get(client);
+            if (clientRequests == null) {
+                clientRequests = new ArrayList<>();
+                requestsByClient.put(client, clientRequests);
+            }
+            clientRequests.add(request);
+        }
+        pendingRequests.clear();
+
+        for (Map.Entry<Client, List<BatchedRequest>> entry : requestsByClient.entrySet()) {
+            send(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Gets the amount of multiple-queries requests sent by this batcher.
+     *
+     * @return the amount of requests that were sent on behalf of several searches.
+     */
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Gets the amount of searches sent as part of a multiple-queries request.
+     *
+     * @return the amount of searches that did not need their own request.
+     */
+    public int getBatchedSearchCount() {
+        return batchedSearchCount;
+    }
+
+    private void send(@NonNull Client client, @NonNull final List<BatchedRequest> requests) {
+        if (requests.size() == 1) {
+            final BatchedRequest request = requests.get(0);
+            request.setUnderlyingRequest(request.index.searchAsync(request.query, new CompletionHandler() {
+                @Override
+                public void requestCompleted(@Nullable JSONObject content, @Nullable AlgoliaException error) {
+                    request.complete(content, error);
+                }
+            }));
+            return;
+        }
+
+        final List<IndexQuery> queries = new ArrayList<>(requests.size());
+        for (BatchedRequest request : requests) {
+            queries.add(new IndexQuery(request.index.getIndexName(), request.query));
+        }
+        batchCount++;
+        batchedSearchCount += requests.size();
+
+        final Batch batch = new Batch(requests);
+        batch.underlyingRequest = client.multipleQueriesAsync(queries, Client.MultipleQueriesStrategy.NONE, new CompletionHandler() {
+            @Override
+            public void requestCompleted(@Nullable JSONObject content, @Nullable AlgoliaException error) {
+                final JSONArray results = content != null ? content.optJSONArray("results") : null;
+                if (error == null && (results == null || results.length() != requests.size())) {
+                    error = new AlgoliaException("Invalid multiple queries response: " + content);
+                }
+                for (int i = 0; i < requests.size(); i++) {
+                    requests.get(i).complete(error == null ? results.optJSONObject(i) : null, error);
+                }
+            }
+        });
+        for (BatchedRequest request : requests) {
+            request.batch = batch;
+        }
+    }
+
+    /** A multiple-queries request shared by several searches, cancelled only when all of them are. */
+    private static class Batch {
+        @NonNull final List<BatchedRequest> requests;
+        Request underlyingRequest;
+
+        Batch(@NonNull List<BatchedRequest> requests) {
+            this.requests = requests;
+        }
+
+        void onRequestCancelled() {
+            for (BatchedRequest request : requests) {
+                if (!request.isCancelled()) {
+                    return;
+                }
+            }
+            underlyingRequest.cancel();
+        }
+    }
+
+    /** A search waiting to be sent or sent as part of a {@link Batch}. */
+    private class BatchedRequest implements Request {
+        @NonNull final Index index;
+        @NonNull final Query query;
+        @NonNull final CompletionHandler completionHandler;
+
+        /** The batch this search was sent with, if it was sent along with other searches. */
+        @Nullable Batch batch;
+        /** The request this search was sent with, if it was sent alone. */
+        @Nullable private Request underlyingRequest;
+
+        private boolean cancelled;
+        private boolean finished;
+
+        BatchedRequest(@NonNull Index index, @NonNull Query query, @NonNull CompletionHandler completionHandler) {
+            this.index = index;
+            this.query = query;
+            this.completionHandler = completionHandler;
+        }
+
+        void setUnderlyingRequest(@NonNull Request underlyingRequest) {
+            this.underlyingRequest = underlyingRequest;
+        }
+
+        void complete(@Nullable JSONObject content, @Nullable AlgoliaException error) {
+            if (cancelled) {
+                return;
+            }
+            finished = true;
+            completionHandler.requestCompleted(content, error);
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled || finished) {
+                return;
+            }
+            cancelled = true;
+            if (batch != null) {
+                batch.onRequestCancelled();
+            } else if (underlyingRequest != null) {
+                underlyingRequest.cancel();
+            } else {
+                pendingRequests.remove(this);
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package com.algolia.instantsearch.helpers;
 
+import android.annotation.TargetApi;
+import android.app.Activity;
+import android.app.Application;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.util.Log;
-import android.util.SparseArray;
 
 import com.algolia.instantsearch.BuildConfig;
 import com.algolia.instantsearch.events.CancelEvent;
@@ -13,6 +20,7 @@ import com.algolia.instantsearch.events.SearchEvent;
 import com.algolia.instantsearch.model.AlgoliaResultsListener;
 import com.algolia.instantsearch.model.FacetStat;
 import com.algolia.instantsearch.model.NumericRefinement;
+import com.algolia.instantsearch.model.ResultsProcessor;
 import com.algolia.instantsearch.model.SearchResults;
 import com.algolia.search.saas.AlgoliaException;
 import com.algolia.search.saas.Client;
@@ -26,22 +34,44 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Handles the state of the search interface, wrapping an {@link Client Algolia API Client} and provide a level of abstraction over it.
  * <p>
  * The Searcher is responsible of interacting with the Algolia engine: when {@link Searcher#search()} is called,
  * the Searcher will fire a request with the current {@link Searcher#query}, and will forward the search results to its {@link AlgoliaResultsListener listeners}.
+ * <p>
+ * <b>Concurrency model:</b> a Searcher can be configured and asked to search from any thread.
+ * <ul>
+ * <li>Refinement and faceting methods update concurrent structures, and rebuild the query under a lock
+ * that is also held while the query is copied, so a request never sees a half-updated state.</li>
+ * <li>{@link #search()}, {@link #loadMore()} and {@link #prefetch()} take a snapshot of the query on the calling thread.
+ * When called from another thread, the request is then sent from the main thread, where the request/response state lives.</li>
+ * <li>Responses, {@link AlgoliaResultsListener listeners} and events are always handled on the main thread,
+ * as well as {@link #reset()} and {@link #cancelPendingRequests()} which should be called from it.</li>
+ * <li>With a {@link #setProcessingExecutor(Executor) processing executor}, responses are parsed and prepared on it, and only
+ * ready-to-bind results reach the main thread. A network response is dropped as soon as a newer one was delivered.</li>
+ * </ul>
+ * Calls made from the main thread are handled synchronously, as before. Note that modifying the Query returned by
+ * {@link #getQuery()} directly is not synchronized: prefer the Searcher's methods when working from another thread.
  */
 @SuppressWarnings("UnusedReturnValue") // chaining
 public class Searcher {
-    private static final List<Searcher> instances = new ArrayList<>();
+    /** The live Searchers by {@link #id}, weakly referenced so that they can be garbage-collected along with their listeners. */
+    private static final Map<Integer, WeakReference<Searcher>> instances = new ConcurrentHashMap<>();
+    /** The identifier of the last Searcher created. */
+    private static final AtomicInteger lastId = new AtomicInteger(-1);
     private final int id;
 
     /** The EventBus which will propagate events. */
@@ -51,38 +81,98 @@ public class Searcher {
     /** The {@link Client API Client} used by this Searcher. */
     private final Client client;
     /** The current state of the search {@link Query}. */
-    private Query query;
+    private volatile Query query;
 
     /** The {@link AlgoliaResultsListener listeners} that will receive search results. */
-    private final List<AlgoliaResultsListener> resultsListeners = new ArrayList<>();
+    private final CopyOnWriteArrayList<AlgoliaResultsListener> resultsListeners = new CopyOnWriteArrayList<>();
 
-    /** The identifier of the last search request fired by this Searcher. */
-    private static int lastRequestId;
+    /** The identifier of the last search request fired by any Searcher. */
+    private static final AtomicInteger lastRequestId = new AtomicInteger();
     /** The identifier of the last search response propagated by this Searcher. */
-    private int lastResponseId; // Identifier of last displayed query
+    private volatile int lastResponseId; // Identifier of last displayed query
     /** The page number of the last search request fired by this Searcher. */
-    private int lastRequestPage;
+    private volatile int lastRequestPage;
     /** The page number of the last search response propagated by this Searcher. */
-    private int lastResponsePage;
+    private volatile int lastResponsePage;
+
+    /** The query of the last search whose results were propagated, used to {@link #reloadPage reload} its pages. */
+    @Nullable
+    private volatile Query lastResultsQuery;
 
     /** Whether the end of the results has been reached for the current {@link Searcher#query}. */
-    private boolean endReached;
+    private volatile boolean endReached;
+
+    /** The exponentially weighted moving average of the round-trip time of search requests, in milliseconds. */
+    private volatile long averageRoundTripTime;
+    /** The exponentially weighted moving average of the round-trip time of requests for more pages, in milliseconds. */
+    private volatile long averagePageLoadTime;
+
+    /** The page requested in advance by {@link #prefetch()}, or -1 if there is none. */
+    private int prefetchPage = -1;
+    /** The identifier of the request for the {@link #prefetchPage prefetched page}. */
+    private int prefetchRequestId;
+    /**
+     * The request for the {@link #prefetchPage prefetched page}, while it is pending.
+     * It is also in {@link #pendingRequests} once {@link #loadMore()} waits for it.
+     */
+    @Nullable
+    private Request prefetchRequest;
+    /** Whether the response for the {@link #prefetchPage prefetched page} was received. */
+    private boolean prefetchCompleted;
+    @Nullable
+    private JSONObject prefetchContent;
+    @Nullable
+    private AlgoliaException prefetchError;
+    /** The handler waiting for the {@link #prefetchPage prefetched page}, if {@link #loadMore()} was called before it arrived. */
+    @Nullable
+    private ResponseConsumer prefetchConsumer;
+
+    /** The cache storing responses to avoid sending the same request twice, if any. */
+    @Nullable
+    private ResponseCache responseCache;
+
+    /** The batcher grouping this Searcher's requests with other Searchers' ones, if any. */
+    @Nullable
+    private SearchBatcher searchBatcher;
+
+    /** Shares in-flight requests between identical searches. */
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+
+    /** Whether hits should be narrowed down locally while waiting for the response to an extended query. */
+    private boolean prefixNarrowing;
+    /** The content of the last response to {@link #search()}, used for narrowing. */
+    @Nullable
+    private JSONObject lastSearchContent;
+    /** The parameters of the last response to {@link #search()} except its query text, used for narrowing. */
+    @Nullable
+    private String lastSearchParams;
+
+    /** Guards the refinement state and the {@link #query} while they are modified or copied. */
+    private final Object stateLock = new Object();
+    /** Runs on the main thread the requests asked from other threads. */
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /** The executor preparing responses off the main thread, or {@code null} to prepare them on the main thread. */
+    @Nullable
+    private volatile Executor processingExecutor;
+    /** The processors preparing each response's results before they are delivered. */
+    private final List<ResultsProcessor> resultsProcessors = new CopyOnWriteArrayList<>();
 
     /** The List of attributes that will be treated as disjunctive facets. */
-    private final List<String> disjunctiveFacets = new ArrayList<>();
-    /** The Map associating attributes with their respective refinement value(s). */
-    private final Map<String, List<String>> refinementMap = new HashMap<>();
-    /** The Map associating attributes with their respective numeric refinement value(s). */
-    private final Map<String, SparseArray<NumericRefinement>> numericRefinements = new HashMap<>();
-    /** The Map associating attributes with their respective boolean refinement value(s). */
-    private final Map<String, Boolean> booleanFilterMap = new HashMap<>();
+    private final List<String> disjunctiveFacets = new CopyOnWriteArrayList<>();
+    /** The facet, numeric and boolean refinements, replaced on each change. */
+    private volatile RefinementState refinements = RefinementState.EMPTY;
+    /** The groups of filters compiled into the {@code filters} parameter of each request. */
+    private final List<FilterGroup> filterGroups = new CopyOnWriteArrayList<>();
+    /** Whether disjunctive facets need exact counts, requiring one request per disjunctive facet. */
+    private volatile boolean disjunctiveFacetCounts = true;
 
     /** The List of attributes that will be used for faceting. */
-    private final List<String> facets = new ArrayList<>();
-    private final Map<String, FacetStat> facetStats = new HashMap<>();
+    private final List<String> facets = new CopyOnWriteArrayList<>();
+    private final Map<String, FacetStat> facetStats = new ConcurrentHashMap<>();
 
-    /** The SparseArray associating pending requests with their {@link Searcher#lastRequestId identifier}. */
-    private final SparseArray<Request> pendingRequests = new SparseArray<>();
+    /** The Map associating pending requests with their {@link Searcher#lastRequestId identifier}. */
+    private final Map<Integer, Request> pendingRequests = new ConcurrentHashMap<>();
 
     /**
      * Constructs an helper from an existing {@link Index}.
@@ -96,8 +186,9 @@ public class Searcher {
         query = new Query();
         client.addUserAgent(new Client.LibraryVersion("InstantSearch Android", String.valueOf(BuildConfig.VERSION_NAME)));
         bus = EventBus.getDefault();
-        id = instances.size();
-        instances.add(this);
+        id = lastId.incrementAndGet();
+        purgeInstances();
+        instances.put(id, new WeakReference<>(this));
     }
 
     /**
@@ -111,9 +202,62 @@ public class Searcher {
         this(new Client(appId, apiKey).getIndex(indexName));
     }
 
+    /**
+     * Gets a live Searcher from its identifier.
+     *
+     * @param id the {@link #getId() identifier} of a Searcher.
+     * @return the Searcher, or {@code null} if it was {@link #release() released} or garbage-collected.
+     */
     @Deprecated //DISCUSS: Should we expose this?
-    public static Searcher get(int id) {
-        return instances.get(id);
+    public static @Nullable Searcher get(int id) {
+        final WeakReference<Searcher> reference = instances.get(id);
+        final Searcher searcher = reference != null ? reference.get() : null;
+        if (reference != null && searcher == null) {
+            instances.remove(id);
+        }
+        return searcher;
+    }
+
+    /**
+     * Releases this Searcher: cancels its pending requests, forgets its listeners and removes it from the registry.
+     * <p>
+     * A released Searcher should not be used anymore. This method should be called from the main thread.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public void release() {
+        mainHandler.removeCallbacksAndMessages(null);
+        cancelPendingRequests();
+        resultsListeners.clear();
+        lastSearchContent = null;
+        lastSearchParams = null;
+        instances.remove(id);
+    }
+
+    /**
+     * {@link #release() Releases} this Searcher automatically when the given Activity is destroyed.
+     * <p>
+     * This is a no-op before Android 4.0, where you should call {@link #release()} in {@link Activity#onDestroy()}.
+     *
+     * @param activity the Activity owning this Searcher.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public Searcher releaseOnDestroy(@NonNull Activity activity) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+            activity.getApplication().registerActivityLifecycleCallbacks(new ActivityReleaser(activity, this));
+        } else {
+            Log.w("Algolia|Searcher", "Cannot observe Activity lifecycle before API 14, release() should be called manually.");
+        }
+        return this;
+    }
+
+    /** Removes the entries of the Searchers that were garbage-collected. */
+    private static void purgeInstances() {
+        final Iterator<WeakReference<Searcher>> iterator = instances.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().get() == null) {
+                iterator.remove();
+            }
+        }
     }
 
     /**
@@ -123,7 +267,9 @@ public class Searcher {
      */
     @NonNull
     public Searcher search(final String queryString) {
-        query.setQuery(queryString);
+        synchronized (stateLock) {
+            query.setQuery(queryString);
+        }
         search();
         return this;
     }
@@ -133,27 +279,53 @@ public class Searcher {
      */
     @NonNull
     public Searcher search() {
+        final SearchState state = snapshotState();
+        if (!isMainThread()) {
+            mainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    search(state);
+                }
+            });
+            return this;
+        }
+        return search(state);
+    }
+
+    @NonNull
+    private Searcher search(@NonNull SearchState state) {
+        final Query searchQuery = state.query;
+        clearPrefetch();
         endReached = false;
         lastRequestPage = 0;
         lastResponsePage = -1;
-        final int currentRequestId = ++lastRequestId;
-
-        bus.post(new SearchEvent(query, currentRequestId));
-        final CompletionHandler searchHandler = new CompletionHandler() {
+        final int currentRequestId = lastRequestId.incrementAndGet();
+        final long startTime = SystemClock.elapsedRealtime();
+        final String indexName = index.getIndexName();
+        final String cacheKey = ResponseCache.getKey(index, searchQuery, state.disjunctiveFacets);
+        final String narrowingParams = prefixNarrowing ? getNarrowingParams(state) : null;
+
+        bus.post(new SearchEvent(searchQuery, currentRequestId));
+        final ResponseConsumer searchConsumer = new ResponseConsumer() {
             @Override
-            public void requestCompleted(@Nullable JSONObject content, @Nullable AlgoliaException error) {
+            public void consume(@NonNull ProcessedResponse response) {
+                final JSONObject content = response.content;
+                final AlgoliaException error = response.error;
+                final boolean isFromNetwork = pendingRequests.get(currentRequestId) != null;
                 pendingRequests.remove(currentRequestId);
+                if (isFromNetwork && error == null) {
+                    updateRoundTripTime(response.receivedAt - startTime);
+                    cacheResponse(cacheKey, indexName, content);
+                }
                 // NOTE: Canceling any request anterior to the current one.
                 //
                 // Rationale: Although TCP imposes a server to send responses in the same order as
                 // requests, nothing prevents the system from opening multiple connections to the
                 // same server, nor the Algolia client to transparently switch to another server
                 // between two requests. Therefore the order of responses is not guaranteed.
-                for (int i = 0; i < pendingRequests.size(); i++) {
-                    int reqId = pendingRequests.keyAt(i);
-                    Request request = pendingRequests.valueAt(i);
-                    if (reqId < currentRequestId) {
-                        cancelRequest(request, reqId);
+                for (Map.Entry<Integer, Request> entry : pendingRequests.entrySet()) {
+                    if (entry.getKey() < currentRequestId) {
+                        cancelRequest(entry.getValue(), entry.getKey());
                     }
                 }
 
@@ -162,39 +334,49 @@ public class Searcher {
                             + ", current request (" + currentRequestId + ") should have been canceled");
                 }
 
-                if (content == null || !hasHits(content)) {
+                if (!response.hasHits || response.isLastPage) {
                     endReached = true;
-                } else {
-                    checkIfLastPage(content);
                 }
 
                 lastResponseId = currentRequestId;
                 lastResponsePage = 0;
 
                 if (error != null) {
-                    bus.post(new ErrorEvent(error, query, currentRequestId));
+                    bus.post(new ErrorEvent(error, searchQuery, currentRequestId));
                     for (AlgoliaResultsListener view : resultsListeners) {
-                        view.onError(query, error);
+                        view.onError(searchQuery, error);
                     }
                 } else {
                     if (content == null) {
                         Log.e("Algolia|Searcher", "content is null but error is not.");
                     } else {
-                        bus.post(new ResultEvent(content, query, currentRequestId));
-                        updateListeners(content, false);
-                        updateFacetStats(content);
+                        lastSearchContent = content;
+                        lastSearchParams = narrowingParams;
+                        lastResultsQuery = searchQuery;
+                        //noinspection ConstantConditions: results are set along with content
+                        bus.post(new ResultEvent(response.results, searchQuery, currentRequestId));
+                        updateListeners(response.results, false);
+                        facetStats.putAll(response.facetStats);
                     }
                 }
             }
         };
+        final CompletionHandler searchHandler = newProcessingHandler(currentRequestId, searchConsumer);
 
-        final Request searchRequest;
-        if (disjunctiveFacets.size() != 0) {
-            searchRequest = index.searchDisjunctiveFacetingAsync(query, disjunctiveFacets, refinementMap, searchHandler);
-        } else {
-            searchRequest = index.searchAsync(query, searchHandler);
+        final Request request = searchOrGetCached(cacheKey, searchQuery, state.disjunctiveFacets.isEmpty() ? null : state, searchHandler, new CachedResponseHandler() {
+            @Override
+            public void onCachedResponse(@NonNull JSONObject content) {
+                pendingRequests.remove(currentRequestId);
+                deliverResponse(content, null, searchConsumer);
+            }
+        });
+        if (request == null) {
+            return this;
+        }
+        pendingRequests.put(currentRequestId, request);
+        if (prefixNarrowing) {
+            displayNarrowedHits(currentRequestId, narrowingParams, searchQuery.getQuery());
         }
-        pendingRequests.put(currentRequestId, searchRequest);
         return this;
     }
 
@@ -202,44 +384,367 @@ public class Searcher {
      * Loads more results with the same query.
      * <p>
      * Note that this method won't do anything if {@link Searcher#shouldLoadMore} returns false.
+     * If the next page was {@link #prefetch() prefetched}, it is used instead of sending a new request.
      */
     @NonNull
     public Searcher loadMore() {
+        final Query searchQuery = getQuerySnapshot();
+        if (!isMainThread()) {
+            mainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    loadMore(searchQuery);
+                }
+            });
+            return this;
+        }
+        return loadMore(searchQuery);
+    }
+
+    @NonNull
+    private Searcher loadMore(@NonNull Query searchQuery) {
         if (!shouldLoadMore()) {
             return this;
         }
-        Query loadMoreQuery = new Query(query);
+        if (prefetchPage == lastRequestPage + 1) {
+            lastRequestPage++;
+            final int currentRequestId = prefetchRequestId;
+            final ResponseConsumer loadMoreConsumer = newLoadMoreConsumer(currentRequestId, searchQuery, null, null, 0);
+            bus.post(new SearchEvent(searchQuery, currentRequestId));
+            if (prefetchCompleted) {
+                final JSONObject content = prefetchContent;
+                final AlgoliaException error = prefetchError;
+                clearPrefetch();
+                deliverResponse(content, error, loadMoreConsumer);
+            } else {
+                prefetchConsumer = loadMoreConsumer;
+                if (prefetchRequest != null) { // Pending as any other request, now that a SearchEvent was posted for it
+                    pendingRequests.put(currentRequestId, prefetchRequest);
+                }
+            }
+            return this;
+        }
+
+        Query loadMoreQuery = new Query(searchQuery);
         loadMoreQuery.setPage(++lastRequestPage);
-        final int currentRequestId = ++lastRequestId;
-        bus.post(new SearchEvent(query, currentRequestId));
-        pendingRequests.put(currentRequestId, index.searchAsync(loadMoreQuery, new CompletionHandler() {
+        final int currentRequestId = lastRequestId.incrementAndGet();
+        final String indexName = index.getIndexName();
+        final String cacheKey = ResponseCache.getKey(index, loadMoreQuery, null);
+        bus.post(new SearchEvent(searchQuery, currentRequestId));
+        final ResponseConsumer loadMoreConsumer = newLoadMoreConsumer(currentRequestId, searchQuery, cacheKey, indexName, SystemClock.elapsedRealtime());
+
+        final Request request = searchOrGetCached(cacheKey, loadMoreQuery, null, newProcessingHandler(currentRequestId, loadMoreConsumer), new CachedResponseHandler() {
+            @Override
+            public void onCachedResponse(@NonNull JSONObject content) {
+                pendingRequests.remove(currentRequestId);
+                deliverResponse(content, null, loadMoreConsumer);
+            }
+        });
+        if (request != null) {
+            pendingRequests.put(currentRequestId, request);
+        }
+        return this;
+    }
+
+    /**
+     * Requests the next page in advance, keeping it until {@link #loadMore()} is called.
+     * <p>
+     * The prefetched page is dropped when a new {@link #search()} supersedes it.
+     * Note that this method won't do anything if {@link Searcher#shouldLoadMore} returns false or if the next page is already prefetched.
+     */
+    @NonNull
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public Searcher prefetch() {
+        final Query searchQuery = getQuerySnapshot();
+        if (!isMainThread()) {
+            mainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    prefetch(searchQuery);
+                }
+            });
+            return this;
+        }
+        return prefetch(searchQuery);
+    }
+
+    @NonNull
+    private Searcher prefetch(@NonNull Query searchQuery) {
+        if (!shouldLoadMore() || prefetchPage != -1) {
+            return this;
+        }
+        final Query prefetchQuery = new Query(searchQuery);
+        prefetchQuery.setPage(lastRequestPage + 1);
+        final int currentRequestId = lastRequestId.incrementAndGet();
+        final long startTime = SystemClock.elapsedRealtime();
+        final String indexName = index.getIndexName();
+        final String cacheKey = ResponseCache.getKey(index, prefetchQuery, null);
+        prefetchPage = lastRequestPage + 1;
+        prefetchRequestId = currentRequestId;
+
+        final CompletionHandler prefetchHandler = new CompletionHandler() {
+            @Override
+            public void requestCompleted(@Nullable JSONObject content, @Nullable AlgoliaException error) {
+                if (currentRequestId != prefetchRequestId) {
+                    return; // This prefetched page was dropped
+                }
+                final boolean isFromNetwork = prefetchRequest != null;
+                prefetchRequest = null;
+                pendingRequests.remove(currentRequestId);
+                if (isFromNetwork && error == null) {
+                    updatePageLoadTime(SystemClock.elapsedRealtime() - startTime);
+                    cacheResponse(cacheKey, indexName, content);
+                }
+
+                if (prefetchConsumer != null) {
+                    final ResponseConsumer consumer = prefetchConsumer;
+                    clearPrefetch();
+                    deliverResponse(content, error, consumer);
+                } else {
+                    prefetchCompleted = true;
+                    prefetchContent = content;
+                    prefetchError = error;
+                }
+            }
+        };
+
+        prefetchRequest = searchOrGetCached(cacheKey, prefetchQuery, null, prefetchHandler, new CachedResponseHandler() {
+            @Override
+            public void onCachedResponse(@NonNull JSONObject content) {
+                prefetchRequest = null; // Not from the network
+                prefetchHandler.requestCompleted(content, null);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Loads again a page of the currently displayed results, for instance after a widget dropped it to save memory.
+     * <p>
+     * Unlike {@link #loadMore()}, this does not notify the {@link AlgoliaResultsListener listeners} nor post any event:
+     * the results are only given to the listener, straight from the cache if it is still there. They go through the
+     * {@link #addResultsProcessor(ResultsProcessor) results processors} as any other results, so that the page looks the same as when it was first displayed.
+     * This method must be called on the main thread.
+     *
+     * @param page     the page to load.
+     * @param listener the listener to call on the main thread with the results.
+     * @return {@code false} if no results were displayed yet, in which case the listener is not called.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public boolean reloadPage(final int page, @NonNull final PageReloadListener listener) {
+        final Query resultsQuery = lastResultsQuery;
+        if (resultsQuery == null) {
+            return false;
+        }
+        final Query pageQuery = new Query(resultsQuery);
+        pageQuery.setPage(page);
+        final String indexName = index.getIndexName();
+        final String cacheKey = ResponseCache.getKey(index, pageQuery, null);
+        final ResponseConsumer consumer = new ResponseConsumer() {
+            @Override
+            public void consume(@NonNull ProcessedResponse response) {
+                listener.onPageReloaded(page, response.results, response.error);
+            }
+        };
+        searchOrGetCached(cacheKey, pageQuery, null, new CompletionHandler() {
+            @Override
+            public void requestCompleted(@Nullable JSONObject content, @Nullable AlgoliaException error) {
+                if (error == null) {
+                    cacheResponse(cacheKey, indexName, content);
+                }
+                deliverResponse(content, error, consumer);
+            }
+        }, new CachedResponseHandler() {
+            @Override
+            public void onCachedResponse(@NonNull JSONObject content) {
+                deliverResponse(content, null, consumer);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Gets the response to a request from the {@link #responseCache cache}, or sends the request if it is not cached.
+     * <p>
+     * A response cached in memory is given to the cachedHandler right away. Otherwise, the disk tier of the cache is
+     * read in the background while the returned Request is pending: it is then either answered from disk, again through
+     * the cachedHandler, or sent. Cancelling the returned Request stops both the lookup and the request.
+     *
+     * @param key              the key of the request, see {@link ResponseCache#getKey}.
+     * @param query            the query to send.
+     * @param disjunctiveState the state to search with using disjunctive faceting, or {@code null} for a regular search.
+     * @param handler          the handler to call with the response if the request is sent.
+     * @param cachedHandler    the handler to call on the main thread with the cached response if there is one.
+     * @return the Request to track until the response is handled, or {@code null} if it was cached in memory.
+     */
+    @Nullable
+    private Request searchOrGetCached(@NonNull final String key, @NonNull final Query query, @Nullable final SearchState disjunctiveState,
+                                      @NonNull final CompletionHandler handler, @NonNull final CachedResponseHandler cachedHandler) {
+        final ResponseCache cache = responseCache;
+        if (cache == null) {
+            return coalescedSearchAsync(key, query, disjunctiveState, handler);
+        }
+        final CacheLookupRequest request = new CacheLookupRequest();
+        final JSONObject cachedContent = cache.getAsync(key, new ResponseCache.LookupListener() {
+            @Override
+            public void onLookup(@Nullable JSONObject content) {
+                if (request.isCancelled()) {
+                    return;
+                }
+                if (content != null) {
+                    request.finished = true;
+                    cachedHandler.onCachedResponse(content);
+                } else {
+                    request.setRequest(coalescedSearchAsync(key, query, disjunctiveState, handler));
+                }
+            }
+        });
+        if (cachedContent != null) {
+            cachedHandler.onCachedResponse(cachedContent);
+            return null;
+        }
+        return request;
+    }
+
+    /**
+     * Sends a search, or attaches to an identical one if it is already in flight.
+     *
+     * @param key              the key of the request, see {@link ResponseCache#getKey}.
+     * @param query            the query to send.
+     * @param disjunctiveState the state to search with using disjunctive faceting, or {@code null} for a regular search.
+     * @param handler          the handler to call with the response.
+     * @return a Request that can be cancelled without affecting the other callers of an identical search.
+     */
+    @NonNull
+    private Request coalescedSearchAsync(@NonNull String key, @NonNull Query query, @Nullable SearchState disjunctiveState, @NonNull CompletionHandler handler) {
+        final Request coalescedRequest = requestCoalescer.attach(key, handler);
+        if (coalescedRequest != null) {
+            return coalescedRequest;
+        }
+        final RequestCoalescer.InFlightRequest inFlightRequest = requestCoalescer.start(key);
+        final Request request = inFlightRequest.attach(handler);
+        if (disjunctiveState != null) {
+            inFlightRequest.setRequest(index.searchDisjunctiveFacetingAsync(query, disjunctiveState.disjunctiveFacets, disjunctiveState.refinements.getFacetRefinements(), inFlightRequest));
+        } else {
+            inFlightRequest.setRequest(searchAsync(query, inFlightRequest));
+        }
+        return request;
+    }
+
+    /** Sends a search through the {@link #searchBatcher batcher} if there is one, or directly otherwise. */
+    @NonNull
+    private Request searchAsync(@NonNull Query query, @NonNull CompletionHandler completionHandler) {
+        if (searchBatcher != null) {
+            return searchBatcher.searchAsync(index, query, completionHandler);
+        }
+        return index.searchAsync(query, completionHandler);
+    }
+
+    @NonNull
+    private ResponseConsumer newLoadMoreConsumer(final int currentRequestId, @NonNull final Query searchQuery, @Nullable final String cacheKey, @Nullable final String indexName, final long startTime) {
+        return new ResponseConsumer() {
             @Override
-            public void requestCompleted(@NonNull JSONObject content, @Nullable AlgoliaException error) {
+            public void consume(@NonNull ProcessedResponse response) {
+                final JSONObject content = response.content;
+                final AlgoliaException error = response.error;
+                final boolean isFromNetwork = pendingRequests.get(currentRequestId) != null;
                 pendingRequests.remove(currentRequestId);
+                if (isFromNetwork && error == null) {
+                    updatePageLoadTime(response.receivedAt - startTime);
+                    if (indexName != null) {
+                        cacheResponse(cacheKey, indexName, content);
+                    }
+                }
                 if (error != null) {
-                    bus.post(new ErrorEvent(error, query, currentRequestId));
+                    bus.post(new ErrorEvent(error, searchQuery, currentRequestId));
                     for (AlgoliaResultsListener view : resultsListeners) {
-                        view.onError(query, error);
+                        view.onError(searchQuery, error);
                     }
                 } else {
                     if (currentRequestId <= lastResponseId) {
                         return; // Hits are for an older query, let's ignore them
                     }
 
-                    bus.post(new ResultEvent(content, query, currentRequestId));
-                    if (hasHits(content)) {
-                        updateListeners(content, true);
-                        updateFacetStats(content);
+                    //noinspection ConstantConditions: results are set along with content
+                    bus.post(new ResultEvent(response.results, searchQuery, currentRequestId));
+                    if (response.hasHits) {
+                        updateListeners(response.results, true);
+                        facetStats.putAll(response.facetStats);
                         lastResponsePage = lastRequestPage;
 
-                        checkIfLastPage(content);
+                        if (response.isLastPage) {
+                            endReached = true;
+                        }
                     } else {
                         endReached = true;
                     }
                 }
             }
-        }));
-        return this;
+        };
+    }
+
+    /**
+     * Wraps a consumer into a handler preparing the network response to a tracked request, see {@link #processResponse}.
+     * <p>
+     * The response is dropped if its request was cancelled before it is delivered, which happens when the response
+     * to a newer request is delivered: the stale results are not processed further nor posted.
+     *
+     * @param requestId the identifier of the request, which should be in {@link #pendingRequests} until its response is consumed.
+     * @param consumer  the consumer to call on the main thread with the prepared response.
+     * @return a CompletionHandler to send the request with.
+     */
+    @NonNull
+    private CompletionHandler newProcessingHandler(final int requestId, @NonNull final ResponseConsumer consumer) {
+        return new CompletionHandler() {
+            @Override
+            public void requestCompleted(@Nullable JSONObject content, @Nullable AlgoliaException error) {
+                processResponse(content, error, true, requestId, consumer);
+            }
+        };
+    }
+
+    /**
+     * Prepares a response that should always be delivered, such as cached or {@link #prefetch() prefetched} content
+     * or the response to an untracked request, see {@link #processResponse}.
+     */
+    private void deliverResponse(@Nullable JSONObject content, @Nullable AlgoliaException error, @NonNull ResponseConsumer consumer) {
+        processResponse(content, error, false, 0, consumer);
+    }
+
+    /**
+     * Prepares a response then gives it to a consumer, on the {@link #processingExecutor} if there is one.
+     *
+     * @param content     the content of the response.
+     * @param error       the error of the response, which is given right away as there is nothing to prepare.
+     * @param dropIfStale {@code true} to drop the response if its request is not pending anymore, {@code false} to always deliver it.
+     * @param requestId   the identifier of the request, checked if dropIfStale.
+     * @param consumer    the consumer to call on the main thread with the prepared response.
+     */
+    private void processResponse(@Nullable final JSONObject content, @Nullable final AlgoliaException error,
+                                 final boolean dropIfStale, final int requestId, @NonNull final ResponseConsumer consumer) {
+        final long receivedAt = SystemClock.elapsedRealtime();
+        final Executor executor = processingExecutor;
+        if (executor == null || error != null) {
+            consumer.consume(ProcessedResponse.process(content, error, receivedAt, resultsProcessors, false));
+            return;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (dropIfStale && isStale(requestId)) {
+                    return; // A newer response was delivered, this one is stale
+                }
+                final ProcessedResponse response = ProcessedResponse.process(content, null, receivedAt, resultsProcessors, true);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!dropIfStale || !isStale(requestId)) {
+                            consumer.consume(response);
+                        }
+                    }
+                });
+            }
+        });
     }
 
     /**
@@ -261,9 +766,15 @@ public class Searcher {
         lastRequestPage = 0;
         lastResponseId = 0;
         endReached = false;
+        lastSearchContent = null;
+        lastSearchParams = null;
+        lastResultsQuery = null;
+        clearPrefetch();
         clearFacetRefinements();
         cancelPendingRequests();
-        numericRefinements.clear();
+        synchronized (stateLock) {
+            setRefinements(refinements.withoutNumericRefinements());
+        }
         return this;
     }
 
@@ -274,7 +785,7 @@ public class Searcher {
      */
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public boolean hasPendingRequests() {
-        return pendingRequests.size() != 0;
+        return !pendingRequests.isEmpty();
     }
 
     /**
@@ -282,15 +793,13 @@ public class Searcher {
      */
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public Searcher cancelPendingRequests() {
-        if (pendingRequests.size() != 0) {
-            for (int i = 0; i < pendingRequests.size(); i++) {
-                int reqId = pendingRequests.keyAt(i);
-                Request r = pendingRequests.valueAt(i);
-                if (!r.isFinished() && !r.isCancelled()) {
-                    cancelRequest(r, reqId);
-                }
+        for (Map.Entry<Integer, Request> entry : pendingRequests.entrySet()) {
+            final Request r = entry.getValue();
+            if (!r.isFinished() && !r.isCancelled()) {
+                cancelRequest(r, entry.getKey());
             }
         }
+        clearPrefetch();
         return this;
     }
 
@@ -302,13 +811,12 @@ public class Searcher {
      * @param values             an eventual list of values to refine on.
      */
     public void addFacet(@NonNull String attributeName, boolean isDisjunctiveFacet, @Nullable ArrayList<String> values) {
-        if (isDisjunctiveFacet) {
-            disjunctiveFacets.add(attributeName);
-        }
-        if (values == null) {
-            values = new ArrayList<>();
+        synchronized (stateLock) {
+            if (isDisjunctiveFacet) {
+                disjunctiveFacets.add(attributeName);
+            }
+            setRefinements(refinements.withFacetRefinements(attributeName, values == null ? Collections.<String>emptyList() : values));
         }
-        refinementMap.put(attributeName, values);
     }
 
     /**
@@ -340,9 +848,9 @@ public class Searcher {
     @NonNull
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public Searcher addFacetRefinement(@NonNull String attributeName, @NonNull String value) {
-        List<String> attributeRefinements = getOrCreateRefinements(attributeName);
-        attributeRefinements.add(value);
-        rebuildQueryFacetFilters();
+        synchronized (stateLock) {
+            setRefinements(refinements.withFacetRefinement(attributeName, value));
+        }
         return this;
     }
 
@@ -357,9 +865,9 @@ public class Searcher {
     @NonNull
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public Searcher removeFacetRefinement(@NonNull String attributeName, @NonNull String value) {
-        List<String> attributeRefinements = getOrCreateRefinements(attributeName);
-        attributeRefinements.remove(value);
-        rebuildQueryFacetFilters();
+        synchronized (stateLock) {
+            setRefinements(refinements.withoutFacetRefinement(attributeName, value));
+        }
         return this;
     }
 
@@ -372,8 +880,7 @@ public class Searcher {
      */
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public boolean hasFacetRefinement(@NonNull String attributeName, @NonNull String value) {
-        List<String> attributeRefinements = refinementMap.get(attributeName);
-        return attributeRefinements != null && attributeRefinements.contains(value);
+        return refinements.hasFacetRefinement(attributeName, value);
     }
 
     /**
@@ -383,9 +890,10 @@ public class Searcher {
      */
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public Searcher clearFacetRefinements() {
-        refinementMap.clear();
-        disjunctiveFacets.clear();
-        rebuildQueryFacetFilters();
+        synchronized (stateLock) {
+            disjunctiveFacets.clear();
+            setRefinements(refinements.withoutFacetRefinements());
+        }
         return this;
     }
 
@@ -399,12 +907,10 @@ public class Searcher {
      */
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public Searcher clearFacetRefinements(@NonNull String attribute) {
-        final List<String> stringList = refinementMap.get(attribute);
-        if (stringList != null) {
-            stringList.clear();
+        synchronized (stateLock) {
+            disjunctiveFacets.remove(attribute);
+            setRefinements(refinements.withFacetRefinements(attribute, Collections.<String>emptyList()));
         }
-        disjunctiveFacets.remove(attribute);
-        rebuildQueryFacetFilters();
         return this;
     }
 
@@ -419,8 +925,69 @@ public class Searcher {
     public @Nullable
     NumericRefinement getNumericRefinement(@NonNull String attribute, int operator) {
         NumericRefinement.checkOperatorIsValid(operator);
-        final SparseArray<NumericRefinement> attributeRefinements = numericRefinements.get(attribute);
-        return attributeRefinements == null ? null : attributeRefinements.get(operator);
+        return refinements.getNumericRefinement(attribute, operator);
+    }
+
+    /**
+     * Gets the current refinements.
+     * <p>
+     * The returned state is immutable, and its {@link RefinementState#hashCode() hash code} is cheap enough to be used as a cache key.
+     *
+     * @return a {@link RefinementState} describing the current facet, boolean and numeric refinements.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public @NonNull RefinementState getRefinementState() {
+        return refinements;
+    }
+
+    /**
+     * Adds a group of filters for the next queries, combined with the other groups and refinements with {@code AND}.
+     * <p>
+     * The group is compiled when a request is sent, so later changes to it apply to the next queries.
+     *
+     * @param group a {@link FilterGroup} to add.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public Searcher addFilterGroup(@NonNull FilterGroup group) {
+        if (!filterGroups.contains(group)) {
+            filterGroups.add(group);
+        }
+        return this;
+    }
+
+    /**
+     * Removes a group of filters for the next queries.
+     *
+     * @param group a {@link FilterGroup} previously added.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public Searcher removeFilterGroup(@NonNull FilterGroup group) {
+        filterGroups.remove(group);
+        return this;
+    }
+
+    /**
+     * Removes every group of filters for the next queries.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public Searcher clearFilterGroups() {
+        filterGroups.clear();
+        return this;
+    }
+
+    /**
+     * Sets whether disjunctive facets need exact counts.
+     * <p>
+     * Exact counts require disjunctive faceting, which sends one additional query per refined disjunctive facet.
+     * When they are not needed, the disjunctive refinements are compiled into the {@code filters} of a single query,
+     * the counts of disjunctive facets then only reflecting the records matching their current refinements.
+     *
+     * @param enabled {@code false} to send a single query. Defaults to {@code true}.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public Searcher setDisjunctiveFacetCounts(boolean enabled) {
+        disjunctiveFacetCounts = enabled;
+        return this;
     }
 
     /**
@@ -430,13 +997,9 @@ public class Searcher {
      */
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public Searcher addNumericRefinement(@NonNull NumericRefinement refinement) {
-        SparseArray<NumericRefinement> refinements = numericRefinements.get(refinement.attribute);
-        if (refinements == null) {
-            refinements = new SparseArray<>();
+        synchronized (stateLock) {
+            setRefinements(refinements.withNumericRefinement(refinement));
         }
-        refinements.put(refinement.operator, refinement);
-        numericRefinements.put(refinement.attribute, refinements);
-        rebuildQueryNumericFilters();
         return this;
     }
 
@@ -447,8 +1010,9 @@ public class Searcher {
      */
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public Searcher removeNumericRefinement(@NonNull String attribute) {
-        numericRefinements.remove(attribute);
-        rebuildQueryNumericFilters();
+        synchronized (stateLock) {
+            setRefinements(refinements.withoutNumericRefinements(attribute));
+        }
         return this;
     }
 
@@ -462,8 +1026,9 @@ public class Searcher {
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public Searcher removeNumericRefinement(@NonNull String attribute, int operator) {
         NumericRefinement.checkOperatorIsValid(operator);
-        numericRefinements.get(attribute).remove(operator);
-        rebuildQueryNumericFilters();
+        synchronized (stateLock) {
+            setRefinements(refinements.withoutNumericRefinement(attribute, operator));
+        }
         return this;
     }
 
@@ -475,8 +1040,9 @@ public class Searcher {
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public Searcher removeNumericRefinement(@NonNull NumericRefinement refinement) {
         NumericRefinement.checkOperatorIsValid(refinement.operator);
-        numericRefinements.get(refinement.attribute).remove(refinement.operator);
-        rebuildQueryNumericFilters();
+        synchronized (stateLock) {
+            setRefinements(refinements.withoutNumericRefinement(refinement.attribute, refinement.operator));
+        }
         return this;
     }
 
@@ -487,9 +1053,10 @@ public class Searcher {
      * @param value     the value to refine with.
      */
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
-    public Searcher addBooleanFilter(String attribute, Boolean value) {
-        booleanFilterMap.put(attribute, value);
-        rebuildQueryFacetFilters();
+    public Searcher addBooleanFilter(@NonNull String attribute, @NonNull Boolean value) {
+        synchronized (stateLock) {
+            setRefinements(refinements.withBooleanFilter(attribute, value));
+        }
         return this;
     }
 
@@ -501,7 +1068,7 @@ public class Searcher {
      */
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public @Nullable Boolean getBooleanFilter(String attribute) {
-        return booleanFilterMap.get(attribute);
+        return refinements.getBooleanFilter(attribute);
     }
 
     /**
@@ -511,8 +1078,9 @@ public class Searcher {
      */
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public Searcher removeBooleanFilter(String attribute) {
-        booleanFilterMap.remove(attribute);
-        rebuildQueryFacetFilters();
+        synchronized (stateLock) {
+            setRefinements(refinements.withBooleanFilter(attribute, null));
+        }
         return this;
     }
 
@@ -523,8 +1091,10 @@ public class Searcher {
      */
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public Searcher addFacet(String... attributes) {
-        Collections.addAll(facets, attributes);
-        rebuildQueryFacets();
+        synchronized (stateLock) {
+            Collections.addAll(facets, attributes);
+            rebuildQueryFacets();
+        }
         return this;
     }
 
@@ -536,18 +1106,18 @@ public class Searcher {
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public Searcher removeFacet(String... attributes) {
         //TODO: Count calls to add() and remove only if last one
-        for (String attribute : attributes) {
-            facets.remove(attribute);
+        synchronized (stateLock) {
+            for (String attribute : attributes) {
+                facets.remove(attribute);
+            }
+            rebuildQueryFacets();
         }
-        rebuildQueryFacets();
         return this;
     }
 
     @Deprecated //DISCUSS: Refactor to avoid exposing a Deprecated public method?
     public Searcher registerListener(@NonNull AlgoliaResultsListener resultsListener) {
-        if (!resultsListeners.contains(resultsListener)) {
-            resultsListeners.add(resultsListener);
-        }
+        resultsListeners.addIfAbsent(resultsListener);
         return this;
     }
 
@@ -594,8 +1164,10 @@ public class Searcher {
      */
     @NonNull
     public Searcher setQuery(@NonNull Query query) {
-        this.query = query;
-        this.query.setPage(0);
+        synchronized (stateLock) {
+            query.setPage(0);
+            this.query = query;
+        }
         return this;
     }
 
@@ -621,18 +1193,163 @@ public class Searcher {
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public @NonNull Searcher setIndex(@NonNull String indexName) {
         index = client.getIndex(indexName);
-        query.setPage(0);
+        synchronized (stateLock) {
+            query.setPage(0);
+        }
+        return this;
+    }
+
+    /**
+     * Sets a cache to reuse previous responses instead of sending identical requests.
+     * <p>
+     * You can share a cache between several Searchers, for example by using {@link ResponseCache#getDefault()}.
+     *
+     * @param responseCache the cache to use, or {@code null} to disable caching.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public Searcher setResponseCache(@Nullable ResponseCache responseCache) {
+        this.responseCache = responseCache;
+        return this;
+    }
+
+    /**
+     * Gets the cache used by this Searcher.
+     *
+     * @return the current {@link ResponseCache}, or {@code null} if caching is disabled.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public @Nullable ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Gets the amount of requests that were not sent because an identical one was already in flight.
+     * <p>
+     * This happens for example when several {@link com.algolia.instantsearch.ui.views.filters.Toggle Toggles}
+     * trigger a search with the same state, or when {@link #getUpdatedFacetStats()} follows a {@link #search()}.
+     *
+     * @return the amount of deduplicated requests since this Searcher was created.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public int getCoalescedRequestCount() {
+        return requestCoalescer.getCoalescedCount();
+    }
+
+    /**
+     * Sets a batcher to send this Searcher's requests along with the ones of other Searchers.
+     * <p>
+     * Searches using disjunctive faceting are not batched, as they already consist of several queries.
+     *
+     * @param searchBatcher the {@link SearchBatcher} to use, or {@code null} to send requests separately.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public Searcher setSearchBatcher(@Nullable SearchBatcher searchBatcher) {
+        this.searchBatcher = searchBatcher;
+        return this;
+    }
+
+    /**
+     * Gets the batcher used by this Searcher.
+     *
+     * @return the current {@link SearchBatcher}, or {@code null} if requests are sent separately.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public @Nullable SearchBatcher getSearchBatcher() {
+        return searchBatcher;
+    }
+
+    /**
+     * Sets an executor to prepare responses off the main thread: results parsing, facet stats computation and
+     * {@link ResultsProcessor processors} then run on it, and only the prepared results are posted to the main thread.
+     * <p>
+     * This includes responses served from the cache or {@link #prefetch() prefetched}. Only errors, which have nothing to prepare,
+     * are still handled directly on the main thread.
+     *
+     * @param executor an Executor such as {@link java.util.concurrent.Executors#newSingleThreadExecutor()}, or {@code null} to prepare responses on the main thread.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public Searcher setProcessingExecutor(@Nullable Executor executor) {
+        processingExecutor = executor;
         return this;
     }
 
+    /**
+     * Adds a processor to prepare each response's results before they are delivered to the listeners.
+     * Processors run in the order they were added.
+     *
+     * @param processor a {@link ResultsProcessor}, run on the {@link #setProcessingExecutor(Executor) processing executor} if any.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public Searcher addResultsProcessor(@NonNull ResultsProcessor processor) {
+        if (!resultsProcessors.contains(processor)) {
+            resultsProcessors.add(processor);
+        }
+        return this;
+    }
+
+    /**
+     * Removes a processor previously {@link #addResultsProcessor(ResultsProcessor) added}.
+     *
+     * @param processor the {@link ResultsProcessor} to remove.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public Searcher removeResultsProcessor(@NonNull ResultsProcessor processor) {
+        resultsProcessors.remove(processor);
+        return this;
+    }
+
+    /**
+     * Enables or disables prefix narrowing.
+     * <p>
+     * When enabled and the query text extends the previous one (e.g. from "iph" to "ipho"), the previous hits matching
+     * the new query are displayed immediately, then replaced by the actual results when they arrive.
+     *
+     * @param enabled {@code true} to display narrowed hits while waiting for a response.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public Searcher setPrefixNarrowing(boolean enabled) {
+        prefixNarrowing = enabled;
+        return this;
+    }
+
+    /**
+     * Checks if prefix narrowing is enabled.
+     *
+     * @return {@code true} if narrowed hits are displayed while waiting for the response to an extended query.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public boolean isPrefixNarrowingEnabled() {
+        return prefixNarrowing;
+    }
+
+    /**
+     * Gets the average round-trip time of this Searcher's requests, giving more weight to the most recent ones.
+     *
+     * @return the average duration between sending a request and receiving its response in milliseconds, or 0 if no response was received yet.
+     */
+    public long getAverageRoundTripTime() {
+        return averageRoundTripTime;
+    }
+
+    /**
+     * Gets the average round-trip time of this Searcher's requests for more pages, giving more weight to the most recent ones.
+     *
+     * @return the average duration between requesting a page and receiving it in milliseconds, or 0 if no page was received yet.
+     */
+    public long getAveragePageLoadTime() {
+        return averagePageLoadTime;
+    }
+
     @Deprecated //DISCUSS: Should we expose this?
     public int getId() {
         return id;
     }
 
-    private void updateFacetStats(JSONObject content) {
+    @NonNull
+    private static Map<String, FacetStat> computeFacetStats(@Nullable JSONObject content) {
+        final Map<String, FacetStat> facetStats = new HashMap<>();
         if (content == null) {
-            return;
+            return facetStats;
         }
 
         JSONObject facets = content.optJSONObject("facets");
@@ -640,12 +1357,13 @@ public class Searcher {
         if (facets != null) {
             final Iterator<String> keys = facets.keys();
             while (keys.hasNext()) { // for each faceted attribute
-                updateFacetStat(facets, facets_stats, keys.next());
+                computeFacetStat(facets, facets_stats, keys.next(), facetStats);
             }
         }
+        return facetStats;
     }
 
-    private void updateFacetStat(JSONObject facets, JSONObject facets_stats, String attribute) {
+    private static void computeFacetStat(JSONObject facets, JSONObject facets_stats, String attribute, Map<String, FacetStat> facetStats) {
         double min = Double.MAX_VALUE;
         double max = Double.MIN_VALUE;
         double sum = 0;
@@ -698,14 +1416,30 @@ public class Searcher {
 
     /**
      * Update the facet stats, calling {@link Index#search(Query)} without notifying listeners of the result.
+     * <p>
+     * If an identical search is already in flight, its response is used instead of sending the same request again.
      */
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public void getUpdatedFacetStats() {
-        index.searchAsync(query, new CompletionHandler() {
+        final Query searchQuery = getQuerySnapshot();
+        if (!isMainThread()) {
+            mainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    getUpdatedFacetStats(searchQuery);
+                }
+            });
+            return;
+        }
+        getUpdatedFacetStats(searchQuery);
+    }
+
+    private void getUpdatedFacetStats(@NonNull Query searchQuery) {
+        coalescedSearchAsync(ResponseCache.getKey(index, searchQuery, null), searchQuery, null, new CompletionHandler() {
             @Override
             public void requestCompleted(JSONObject content, AlgoliaException error) {
                 if (error == null) {
-                    updateFacetStats(content);
+                    facetStats.putAll(computeFacetStats(content));
                 } else {
                     Log.e("Algolia|Searcher", "Error while getting updated facet stats:" + error.getMessage());
                 }
@@ -713,33 +1447,15 @@ public class Searcher {
         });
     }
 
-    private Searcher rebuildQueryFacetFilters() {
-        JSONArray facetFilters = new JSONArray();
-        for (Map.Entry<String, List<String>> entry : refinementMap.entrySet()) {
-            final List<String> values = entry.getValue();
-            final String attribute = entry.getKey();
-
-            for (String value : values) {
-                facetFilters.put(attribute + ":" + value);
-            }
-        }
-        for (Map.Entry<String, Boolean> entry : booleanFilterMap.entrySet()) {
-            facetFilters.put(entry.getKey() + ":" + entry.getValue());
-        }
-        //noinspection deprecation Deprecated for app developers
-        query.setFacetFilters(facetFilters);
-        query.setPage(0);
-        return this;
-    }
-
-    private void rebuildQueryNumericFilters() {
-        JSONArray numericFilters = new JSONArray();
-        for (SparseArray<NumericRefinement> refinements : numericRefinements.values()) {
-            for (int i = 0; i < refinements.size(); i++) {
-                numericFilters.put(refinements.valueAt(i).toString());
-            }
-        }
-        query.setNumericFilters(numericFilters);
+    /**
+     * Replaces the refinements and updates the query's filters accordingly. Should be called while holding the {@link #stateLock}.
+     * <p>
+     * The filters are set already serialized, as the Query would serialize JSONArrays anyway.
+     */
+    private void setRefinements(@NonNull RefinementState newRefinements) {
+        refinements = newRefinements;
+        query.set("facetFilters", newRefinements.getFacetFilters());
+        query.set("numericFilters", newRefinements.getNumericFilters());
         query.setPage(0);
     }
 
@@ -749,34 +1465,358 @@ public class Searcher {
         return this;
     }
 
-    @NonNull private List<String> getOrCreateRefinements(@NonNull String attributeName) {
-        List<String> attributeRefinements = refinementMap.get(attributeName);
-        if (attributeRefinements == null) {
-            attributeRefinements = new ArrayList<>();
-            refinementMap.put(attributeName, attributeRefinements);
-        }
-        return attributeRefinements;
-    }
-
     private void cancelRequest(Request request, Integer requestSeqNumber) {
         if (!request.isCancelled()) {
             request.cancel();
             bus.post(new CancelEvent(request, requestSeqNumber));
-            pendingRequests.delete(requestSeqNumber);
+            pendingRequests.remove(requestSeqNumber);
         } else {
             throw new IllegalStateException("cancelRequest was called on a request that was already canceled.");
         }
     }
 
-    private void checkIfLastPage(@NonNull JSONObject content) {
-        if (content.optInt("nbPages") == content.optInt("page") + 1) {
-            endReached = true;
+    /** Serializes a state except its query text and page, as narrowing is only valid if nothing else changed. */
+    @NonNull
+    private String getNarrowingParams(@NonNull SearchState state) {
+        final Query narrowingQuery = new Query(state.query);
+        narrowingQuery.setQuery(null);
+        narrowingQuery.setPage(null);
+        return index.getIndexName() + '?' + narrowingQuery.build() + "&disjunctiveFacets=" + state.disjunctiveFacets;
+    }
+
+    /**
+     * Displays the previous hits narrowed down to an extended query while its request is pending.
+     * <p>
+     * The narrowed results go through the {@link #resultsProcessors} as any other results, on the {@link #processingExecutor}
+     * if there is one. They are dropped if the actual response was delivered meanwhile.
+     *
+     * @param requestId       the identifier of the pending request.
+     * @param narrowingParams the parameters of the request except its query text, see {@link #getNarrowingParams}.
+     * @param queryString     the query text of the request.
+     */
+    private void displayNarrowedHits(final int requestId, @Nullable String narrowingParams, @Nullable final String queryString) {
+        final JSONObject previousContent = lastSearchContent;
+        if (previousContent == null || narrowingParams == null || !narrowingParams.equals(lastSearchParams)) {
+            return;
+        }
+        if (queryString == null || !PrefixNarrower.isExtension(previousContent.optString("query", null), queryString)) {
+            return;
+        }
+        final Executor executor = processingExecutor;
+        if (executor == null) {
+            final SearchResults results = narrowHits(previousContent, queryString, false);
+            if (results != null) {
+                updateListeners(results, false);
+            }
+            return;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (isStale(requestId)) {
+                    return; // The actual response was delivered
+                }
+                final SearchResults results = narrowHits(previousContent, queryString, true);
+                if (results == null) {
+                    return;
+                }
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!isStale(requestId)) {
+                            updateListeners(results, false);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Narrows down the previous hits to an extended query, then prepares them as any other results.
+     *
+     * @return the prepared results, or {@code null} if no hit matches or they could not be prepared.
+     */
+    @Nullable
+    private SearchResults narrowHits(@NonNull JSONObject previousContent, @NonNull String queryString, boolean isBackground) {
+        final JSONObject narrowedContent = PrefixNarrower.narrow(previousContent, queryString);
+        if (narrowedContent == null) {
+            return null;
+        }
+        return ProcessedResponse.process(narrowedContent, null, SystemClock.elapsedRealtime(), resultsProcessors, isBackground).results;
+    }
+
+    private void cacheResponse(@Nullable String cacheKey, @NonNull String indexName, @Nullable JSONObject content) {
+        if (responseCache != null && cacheKey != null && content != null) {
+            responseCache.put(cacheKey, indexName, content);
         }
     }
 
-    private void updateListeners(@NonNull JSONObject hits, boolean isLoadingMore) {
+    private void updateRoundTripTime(long roundTripTime) {
+        averageRoundTripTime = movingAverage(averageRoundTripTime, roundTripTime);
+    }
+
+    private void updatePageLoadTime(long pageLoadTime) {
+        averagePageLoadTime = movingAverage(averagePageLoadTime, pageLoadTime);
+    }
+
+    private static long movingAverage(long average, long measure) {
+        if (average == 0) {
+            return measure;
+        }
+        return average + (measure - average) / 4; // 1/4 weight for the latest measure
+    }
+
+    /**
+     * Drops the prefetched page, cancelling its request if it is still pending.
+     * Once {@link #loadMore()} waits for it, the request is {@link #cancelRequest cancelled} as any other pending request.
+     */
+    private void clearPrefetch() {
+        if (prefetchRequest != null && !prefetchRequest.isCancelled()) {
+            if (pendingRequests.containsKey(prefetchRequestId)) {
+                cancelRequest(prefetchRequest, prefetchRequestId);
+            } else {
+                prefetchRequest.cancel(); // No SearchEvent was posted for it yet
+            }
+        }
+        prefetchPage = -1;
+        prefetchRequestId = 0;
+        prefetchRequest = null;
+        prefetchCompleted = false;
+        prefetchContent = null;
+        prefetchError = null;
+        prefetchConsumer = null;
+    }
+
+    /**
+     * Copies the query and the refinement state needed to send a request, so that later changes do not affect it.
+     * <p>
+     * The {@link #filterGroups filter groups} are compiled into the copy's {@code filters}, as well as the disjunctive
+     * refinements if {@link #disjunctiveFacetCounts their counts are not needed}.
+     */
+    @NonNull
+    private SearchState snapshotState() {
+        synchronized (stateLock) {
+            final Query snapshot = new Query(query);
+            final boolean singleRequest = !disjunctiveFacetCounts && !disjunctiveFacets.isEmpty();
+            if (singleRequest || !filterGroups.isEmpty()) {
+                final List<String> expressions = new ArrayList<>(filterGroups.size() + 2);
+                addExpression(expressions, query.getFilters());
+                if (singleRequest) {
+                    snapshot.set("facetFilters", null);
+                    addExpression(expressions, refinements.getFilters(disjunctiveFacets));
+                }
+                for (FilterGroup group : filterGroups) {
+                    addExpression(expressions, group.compile());
+                }
+                snapshot.setFilters(FilterGroup.join(expressions, false));
+            }
+            return new SearchState(snapshot, singleRequest ? Collections.<String>emptyList() : new ArrayList<>(disjunctiveFacets), refinements);
+        }
+    }
+
+    private static void addExpression(@NonNull List<String> expressions, @Nullable String expression) {
+        if (expression != null && !expression.isEmpty()) {
+            expressions.add(expression);
+        }
+    }
+
+    /** Copies the query, so that later changes do not affect a request. */
+    @NonNull
+    private Query getQuerySnapshot() {
+        return snapshotState().query;
+    }
+
+    /** Checks if the network response to a request should be dropped, because its request is not pending anymore. */
+    private boolean isStale(int requestId) {
+        return !pendingRequests.containsKey(requestId);
+    }
+
+    private static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    private static boolean isLastPage(@NonNull JSONObject content) {
+        return content.optInt("nbPages") == content.optInt("page") + 1;
+    }
+
+    private void updateListeners(@NonNull SearchResults results, boolean isLoadingMore) {
         for (AlgoliaResultsListener view : resultsListeners) {
-            view.onResults(new SearchResults(hits), isLoadingMore);
+            view.onResults(results, isLoadingMore);
+        }
+    }
+
+    /** Releases a Searcher when its Activity is destroyed. */
+    @TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
+    private static class ActivityReleaser implements Application.ActivityLifecycleCallbacks {
+        @NonNull private final Activity activity;
+        @NonNull private final Searcher searcher;
+
+        ActivityReleaser(@NonNull Activity activity, @NonNull Searcher searcher) {
+            this.activity = activity;
+            this.searcher = searcher;
+        }
+
+        @Override
+        public void onActivityDestroyed(Activity destroyedActivity) {
+            if (destroyedActivity == activity) {
+                activity.getApplication().unregisterActivityLifecycleCallbacks(this);
+                searcher.release();
+            }
+        }
+
+        @Override
+        public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityStarted(Activity activity) {
+        }
+
+        @Override
+        public void onActivityResumed(Activity activity) {
+        }
+
+        @Override
+        public void onActivityPaused(Activity activity) {
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+        }
+    }
+
+    /** A response prepared for delivery: everything derived from its content is computed before reaching the main thread. */
+    private static class ProcessedResponse {
+        @Nullable final JSONObject content;
+        @Nullable final AlgoliaException error;
+        /** The parsed results, set if there is a content and no error. */
+        @Nullable final SearchResults results;
+        final boolean hasHits;
+        final boolean isLastPage;
+        @NonNull final Map<String, FacetStat> facetStats;
+        /** The time at which the response was received, in {@link SystemClock#elapsedRealtime()} milliseconds. */
+        final long receivedAt;
+
+        private ProcessedResponse(@Nullable JSONObject content, @Nullable AlgoliaException error, @Nullable SearchResults results, long receivedAt) {
+            this.content = content;
+            this.error = error;
+            this.results = results;
+            this.hasHits = results != null && hasHits(content);
+            this.isLastPage = results != null && isLastPage(content);
+            this.facetStats = results != null ? computeFacetStats(content) : Collections.<String, FacetStat>emptyMap();
+            this.receivedAt = receivedAt;
+        }
+
+        /**
+         * Prepares a response.
+         *
+         * @param content      the response's content.
+         * @param error        the response's error.
+         * @param receivedAt   the time at which the response was received.
+         * @param processors   the processors to run on the results.
+         * @param isBackground {@code true} if preparing off the main thread, where facets are parsed in advance.
+         * @return the prepared response, with an error if the content was invalid or a processor failed.
+         */
+        @NonNull
+        static ProcessedResponse process(@Nullable JSONObject content, @Nullable AlgoliaException error, long receivedAt,
+                                         @NonNull List<ResultsProcessor> processors, boolean isBackground) {
+            if (error != null || content == null) {
+                return new ProcessedResponse(content, error, null, receivedAt);
+            }
+            final SearchResults results;
+            try {
+                results = new SearchResults(content);
+            } catch (IllegalStateException e) {
+                return new ProcessedResponse(null, new AlgoliaException(e.getMessage()), null, receivedAt);
+            }
+            try {
+                if (isBackground) {
+                    results.getFacets();
+                }
+                for (ResultsProcessor processor : processors) {
+                    processor.process(results);
+                }
+            } catch (RuntimeException e) { // Delivered as any other error, rather than crashing the processing thread
+                Log.e("Algolia|Searcher", "Could not process results: " + e.getMessage(), e);
+                return new ProcessedResponse(null, new AlgoliaException("Could not process results: " + e.getMessage()), null, receivedAt);
+            }
+            return new ProcessedResponse(content, null, results, receivedAt);
+        }
+    }
+
+    /**
+     * Receives the results of a page {@link #reloadPage(int, PageReloadListener) loaded again}.
+     */
+    public interface PageReloadListener {
+        /**
+         * Called on the main thread when the page is loaded.
+         *
+         * @param page    the page that was requested.
+         * @param results the page's results, processed by the Searcher's {@link ResultsProcessor results processors}, or {@code null} if there was an error.
+         * @param error   the error that occurred, or {@code null} if the page was loaded.
+         */
+        void onPageReloaded(int page, @Nullable SearchResults results, @Nullable AlgoliaException error);
+    }
+
+    /** Receives a {@link ProcessedResponse} on the main thread. */
+    private interface ResponseConsumer {
+        void consume(@NonNull ProcessedResponse response);
+    }
+
+    /** Receives a response found in the {@link #responseCache cache}, on the main thread. */
+    private interface CachedResponseHandler {
+        void onCachedResponse(@NonNull JSONObject content);
+    }
+
+    /** A Request looking up its response in the disk tier of the cache first, then sent if it was not found there. */
+    private static class CacheLookupRequest implements Request {
+        /** The request sent after the lookup missed, if any. */
+        @Nullable private Request request;
+        private boolean cancelled;
+        /** Whether the response was found in the cache. */
+        private boolean finished;
+
+        void setRequest(@NonNull Request request) {
+            this.request = request;
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled || isFinished()) {
+                return;
+            }
+            cancelled = true;
+            if (request != null) {
+                request.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished || (request != null && request.isFinished());
+        }
+    }
+
+    /** The state of a request, taken when it is asked for. */
+    private static class SearchState {
+        @NonNull final Query query;
+        @NonNull final List<String> disjunctiveFacets;
+        @NonNull final RefinementState refinements;
+
+        SearchState(@NonNull Query query, @NonNull List<String> disjunctiveFacets, @NonNull RefinementState refinements) {
+            this.query = query;
+            this.disjunctiveFacets = disjunctiveFacets;
+            this.refinements = refinements;
         }
     }
 
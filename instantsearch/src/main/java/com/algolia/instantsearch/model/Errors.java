@@ -9,11 +9,14 @@ public class Errors {
     public static final String BINDING_NO_ATTR = "You need an algolia:attribute to use algolia:highlighted and algolia:highlighting.";
     public static final String BINDING_COLOR_INVALID = "algolia:highlightingColor should be an @android:color or @color resource.";
     public static final String BINDING_VIEW_NO_ID = "Your View for attribute %s is missing an android:id.";
+    public static final String BINDING_IMAGE_SIZE_NO_ATTR = "You need an algolia:attribute to use algolia:aspectRatioAttribute or algolia:widthAttribute and algolia:heightAttribute.";
+    public static final String BINDING_IMAGE_SIZE_NOT_IMAGE = "algolia:aspectRatioAttribute, algolia:widthAttribute and algolia:heightAttribute can only be used on an ImageView.";
 
     public static final String FILTER_MISSING_ATTRIBUTE = "You must specify an attributeName";
 
     public static final String HITS_NO_ITEMLAYOUT = "Your Hits widget is missing an algolia:itemLayout attribute to specify the hits item layout.";
     public static final String HITS_INFINITESCROLL = "You specified infiniteScroll=\"false\" and remainingItemsBeforeLoading, but they are mutually exclusive.";
+    public static final String HITS_PREFETCH_INFINITESCROLL = "You cannot enable prefetching when infiniteScroll is \"false\".";
 
     public static final String LAYOUT_MISSING_HITS = "You need to add at least one AlgoliaResultsListener.";
     public static final String LAYOUT_MISSING_HITS_ITEMLAYOUT = "To use the Hits widget, you need to specify an item layout with algolia:itemLayout.";
@@ -30,6 +30,9 @@ public class NumericRefinement {
     /** The value used to refine. */
     public final Double value;
 
+    /** This refinement's filter representation, computed on first use. */
+    private String filter;
+
     /** Constructs a numeric refinement for the given attribute, operator and value. */
     public NumericRefinement(@NonNull String attribute, int operator, double value) {
         checkOperatorIsValid(operator);
@@ -105,7 +108,10 @@ public class NumericRefinement {
 
     @Override
     public String toString() {
-        return attribute + getOperatorSymbol(operator) + String.format(Locale.US, "%f", value);
+        if (filter == null) { // Fields are final, so the formatted value never changes
+            filter = attribute + getOperatorSymbol(operator) + String.format(Locale.US, "%f", value);
+        }
+        return filter;
     }
 
     @Override
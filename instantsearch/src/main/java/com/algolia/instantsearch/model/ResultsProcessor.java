@@ -0,0 +1,22 @@
+package com.algolia.instantsearch.model;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Lets you prepare search results before they are delivered to the {@link AlgoliaResultsListener listeners}.
+ * <p>
+ * When the Searcher has a {@link com.algolia.instantsearch.helpers.Searcher#setProcessingExecutor processing executor},
+ * processors run on it: they should not touch any View, but can compute anything needed to bind the results quickly.
+ * Processors run one after the other in the order they were added, each one seeing the changes of the previous ones:
+ * a processor {@link SearchResults#setHitList providing the hit list} should be added before those reading it.
+ * <p>
+ * If a processor throws a RuntimeException, the response fails as a whole: the listeners get it as an {@code AlgoliaException}.
+ */
+public interface ResultsProcessor {
+    /**
+     * Prepares new results.
+     *
+     * @param results the {@link SearchResults} about to be delivered.
+     */
+    void process(@NonNull SearchResults results);
+}
@@ -9,26 +9,69 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.AbstractList;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Describes the results corresponding to a search request.
+ * <p>
+ * A single instance is built for each response and shared by every {@link AlgoliaResultsListener listener}, so it should not be modified.
+ * Its fields are not final only for compatibility with earlier versions.
+ * Facets and disjunctive facets are only parsed when first accessed, one attribute at a time.
  */
 @SuppressWarnings("WeakerAccess")
 public class SearchResults {
     /** The received JSON content. */
     @NonNull
     public final JSONObject content;
-    /** The facets that will be treated as disjunctive ({@code OR}). By default, facets are conjunctive ({@code AND}). */
-    public List<String> disjunctiveFacets;
+    /**
+     * The facets that will be treated as disjunctive ({@code OR}). By default, facets are conjunctive ({@code AND}).
+     *
+     * @deprecated use {@link #getDisjunctiveFacets()}. This read-only view parses them on first access.
+     */
+    @Deprecated
+    public List<String> disjunctiveFacets = new AbstractList<String>() {
+        @Override
+        public String get(int index) {
+            return getDisjunctiveFacets().get(index);
+        }
+
+        @Override
+        public int size() {
+            return getDisjunctiveFacets().size();
+        }
+    };
 
     // Mandatory attributes
-    /** The facets for the last results. */
-    public Map<String, List<FacetValue>> facets;
+    /**
+     * The facets for the last results.
+     *
+     * @deprecated use {@link #getFacets()} or {@link #getFacetValues(String)}. This read-only view parses an attribute's facets on first access.
+     */
+    @Deprecated
+    public Map<String, List<FacetValue>> facets = new AbstractMap<String, List<FacetValue>>() {
+        @Override
+        public List<FacetValue> get(Object key) {
+            return key instanceof String ? getFacetValues((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Set<Entry<String, List<FacetValue>>> entrySet() {
+            return getFacets().entrySet();
+        }
+    };
     /** The response's hits. */
     @NonNull
     public JSONArray hits;
@@ -119,6 +162,15 @@ public class SearchResults {
      */
     public Boolean timeoutHits;
 
+    /** The facet values parsed so far, by attribute. */
+    private final Map<String, List<FacetValue>> parsedFacets = new HashMap<>();
+    /** Whether every attribute's facet values were parsed. */
+    private boolean allFacetsParsed;
+    /** The disjunctive facets, parsed on first use. */
+    private List<String> disjunctiveFacetList;
+    /** The valid hits, in order, built on first use or provided by a {@link ResultsProcessor}. */
+    private List<JSONObject> hitList;
+
     /**
      * Build a SearchResult object from a raw JSON response.
      *
@@ -140,61 +192,120 @@ public class SearchResults {
         // Optional attributes, ignore and set to null if missing
         message = content.optString("message", null);
         queryAfterRemoval = content.optString("queryAfterRemoval", null);
-        aroundLatLng = Query.parseLatLng(content.optString("aroundLatLng", null));
+        final String latLng = content.optString("aroundLatLng", null);
+        aroundLatLng = latLng != null ? Query.parseLatLng(latLng) : null;
         serverUsed = content.optString("serverUsed", null);
         parsedQuery = content.optString("parsedQuery", null);
-        facets = parseFacets(content.optJSONObject("facets"));
-        disjunctiveFacets = parseDisjunctiveFacets(content.optJSONObject("disjunctiveFacets"));
         page = content.optInt("page");
         nbPages = content.optInt("nbPages");
         hitsPerPage = content.optInt("hitsPerPage");
         exhaustiveFacetsCount = content.optBoolean("exhaustiveFacetsCount");
-        try {
-            automaticRadius = content.getInt("automaticRadius");
-        } catch (JSONException ignored) {
-        }
-        try {
-            timeoutCounts = content.getBoolean("timeoutCounts");
-            timeoutHits = content.getBoolean("timeoutHits");
-        } catch (JSONException ignored) {
-        }
+        automaticRadius = content.has("automaticRadius") ? content.optInt("automaticRadius") : null;
+        final boolean hasTimeouts = content.has("timeoutCounts") && content.has("timeoutHits");
+        timeoutCounts = hasTimeouts ? content.optBoolean("timeoutCounts") : null;
+        timeoutHits = hasTimeouts ? content.optBoolean("timeoutHits") : null;
     }
 
+    /**
+     * Gets the response's hits, skipping the invalid ones.
+     *
+     * @return an unmodifiable List of hits, built on first access unless it was {@link #setHitList(List) provided} beforehand.
+     */
     @NonNull
-    private List<String> parseDisjunctiveFacets(JSONObject disjunctiveFacets) {
-        List<String> disjunctiveFacetList = new ArrayList<>();
-
-        if (disjunctiveFacets != null) {
-            final Iterator<String> iterator = disjunctiveFacets.keys();
-            while (iterator.hasNext()) {
-                disjunctiveFacetList.add(iterator.next());
+    public synchronized List<JSONObject> getHitList() {
+        if (hitList == null) {
+            final List<JSONObject> list = new ArrayList<>(hits.length());
+            for (int i = 0; i < hits.length(); ++i) {
+                final JSONObject hit = hits.optJSONObject(i);
+                if (hit != null) {
+                    list.add(hit);
+                }
             }
+            hitList = Collections.unmodifiableList(list);
         }
-        return disjunctiveFacetList;
+        return hitList;
     }
 
-    @NonNull
-    private Map<String, List<FacetValue>> parseFacets(@Nullable JSONObject facets) {
-        Map<String, List<FacetValue>> facetMap = new HashMap<>();
+    /**
+     * Provides the hits built by a {@link ResultsProcessor}, for instance in parallel.
+     *
+     * @param hitList the hits to use, in order.
+     * @return {@code true} if they were used, {@code false} if the hits were already built.
+     */
+    public synchronized boolean setHitList(@NonNull List<JSONObject> hitList) {
+        if (this.hitList != null) {
+            return false;
+        }
+        this.hitList = Collections.unmodifiableList(hitList);
+        return true;
+    }
 
-        if (facets == null) {
-            return facetMap;
+    /**
+     * Gets the facet values of every faceted attribute, parsing the ones that were not accessed yet.
+     *
+     * @return an unmodifiable Map associating attributes with their facet values.
+     */
+    @NonNull
+    public synchronized Map<String, List<FacetValue>> getFacets() {
+        if (!allFacetsParsed) {
+            final JSONObject facets = content.optJSONObject("facets");
+            if (facets != null) {
+                final Iterator<String> attributesIterator = facets.keys();
+                while (attributesIterator.hasNext()) {
+                    getFacetValues(attributesIterator.next());
+                }
+            }
+            allFacetsParsed = true;
         }
+        return Collections.unmodifiableMap(parsedFacets);
+    }
 
-        final Iterator<String> attributesIterator = facets.keys();
-        while (attributesIterator.hasNext()) {
-            final String attribute = attributesIterator.next();
-            final JSONObject attributeFacets = facets.optJSONObject(attribute);
+    /**
+     * Gets the facet values of an attribute, parsing them on first access.
+     *
+     * @param attribute a faceted attribute.
+     * @return an unmodifiable List of this attribute's facet values, or {@code null} if it has none in these results.
+     */
+    @Nullable
+    public synchronized List<FacetValue> getFacetValues(@NonNull String attribute) {
+        List<FacetValue> facetList = parsedFacets.get(attribute);
+        if (facetList == null) {
+            final JSONObject facets = content.optJSONObject("facets");
+            final JSONObject attributeFacets = facets != null ? facets.optJSONObject(attribute) : null;
+            if (attributeFacets == null) {
+                return null;
+            }
+            final List<FacetValue> values = new ArrayList<>(attributeFacets.length());
             final Iterator<String> valuesIterator = attributeFacets.keys();
-            List<FacetValue> facetList = new ArrayList<>();
-
             while (valuesIterator.hasNext()) {
                 final String value = valuesIterator.next();
                 final int count = attributeFacets.optInt(value);
-                facetList.add(new FacetValue(value, count));
+                values.add(new FacetValue(value, count));
+            }
+            facetList = Collections.unmodifiableList(values);
+            parsedFacets.put(attribute, facetList);
+        }
+        return facetList;
+    }
+
+    /**
+     * Gets the facets that were treated as disjunctive ({@code OR}). By default, facets are conjunctive ({@code AND}).
+     *
+     * @return an unmodifiable List of disjunctive facets, parsed on first access.
+     */
+    @NonNull
+    public synchronized List<String> getDisjunctiveFacets() {
+        if (disjunctiveFacetList == null) {
+            final List<String> disjunctiveFacetList = new ArrayList<>();
+            final JSONObject disjunctiveFacetsJson = content.optJSONObject("disjunctiveFacets");
+            if (disjunctiveFacetsJson != null) {
+                final Iterator<String> iterator = disjunctiveFacetsJson.keys();
+                while (iterator.hasNext()) {
+                    disjunctiveFacetList.add(iterator.next());
+                }
             }
-            facetMap.put(attribute, facetList);
+            this.disjunctiveFacetList = Collections.unmodifiableList(disjunctiveFacetList);
         }
-        return facetMap;
+        return this.disjunctiveFacetList;
     }
 }
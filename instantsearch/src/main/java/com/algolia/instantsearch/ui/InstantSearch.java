@@ -22,6 +22,7 @@ import android.widget.SearchView;
 import com.algolia.instantsearch.R;
 import com.algolia.instantsearch.events.ResetEvent;
 import com.algolia.instantsearch.events.SearchProgressController;
+import com.algolia.instantsearch.helpers.QueryScheduler;
 import com.algolia.instantsearch.helpers.Searcher;
 import com.algolia.instantsearch.model.Errors;
 import com.algolia.instantsearch.ui.utils.LayoutViews;
@@ -54,6 +55,9 @@ public class InstantSearch {
     private final Set<AlgoliaWidget> widgets = new HashSet<>();
     @NonNull
     private final Searcher searcher;
+    /** The scheduler debouncing queries typed in the {@link #searchView}, if debouncing is enabled. */
+    @Nullable
+    private QueryScheduler queryScheduler;
 
     private Menu searchMenu;
     private int searchMenuId;
@@ -115,6 +119,9 @@ public class InstantSearch {
      * Triggers a new search with the {@link #searchView}'s text.
      */
     public void search() {
+        if (queryScheduler != null) {
+            queryScheduler.cancel();
+        }
         if (searchView != null) {
             searcher.search(searchView.getQuery().toString());
         } else {
@@ -131,6 +138,9 @@ public class InstantSearch {
     public void search(@NonNull Intent intent) {
         if (Intent.ACTION_SEARCH.equals(intent.getAction())) {
             String query = intent.getStringExtra(SearchManager.QUERY);
+            if (queryScheduler != null) {
+                queryScheduler.cancel();
+            }
             if (searchView != null) {
                 searchView.setQuery(query, false);
                 searchView.clearFocus();
@@ -232,6 +242,31 @@ public class InstantSearch {
         progressController.disable();
     }
 
+    /**
+     * Enables debouncing of the queries typed in the SearchView, with a delay adapted to the observed network latency.
+     *
+     * @param leadingEdge if {@code true}, the first keystroke after a pause will trigger a request immediately.
+     * @return the {@link QueryScheduler} used for debouncing, which you can further configure.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public QueryScheduler enableDebouncing(boolean leadingEdge) {
+        if (queryScheduler == null) {
+            queryScheduler = new QueryScheduler(searcher);
+        }
+        return queryScheduler.setLeadingEdge(leadingEdge);
+    }
+
+    /**
+     * Disables debouncing, sending any query still waiting to be sent.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public void disableDebouncing() {
+        if (queryScheduler != null) {
+            queryScheduler.flush();
+            queryScheduler = null;
+        }
+    }
+
     /**
      * TODO: Ensure developer calls before displaying widget!
      * Registers your {@link AlgoliaFacetFilter facet filters}, adding them to this InstantSearch's widgets.
@@ -406,8 +441,11 @@ public class InstantSearch {
 
             @Override
             public boolean onQueryTextSubmit(String query) {
-                // Nothing to do: the search has already been performed by `onQueryTextChange()`.
-                // We do try to close the keyboard, though.
+                // Nothing to do: the search has already been performed by `onQueryTextChange()`,
+                // unless it is still debounced. We do try to close the keyboard, though.
+                if (queryScheduler != null) {
+                    queryScheduler.flush();
+                }
                 searchView.clearFocus();
                 return true;
             }
@@ -415,9 +453,16 @@ public class InstantSearch {
             @Override
             public boolean onQueryTextChange(String newText) {
                 if (newText.length() == 0 && searchOnEmptyString) {
+                    if (queryScheduler != null) {
+                        queryScheduler.cancel(); // The debounced query is outdated now that the text is cleared
+                    }
                     return true;
                 }
-                searcher.search(searchView.getQuery().toString());
+                if (queryScheduler != null) {
+                    queryScheduler.schedule(searchView.getQuery().toString());
+                } else {
+                    searcher.search(searchView.getQuery().toString());
+                }
                 return true;
             }
         });
@@ -4,8 +4,10 @@ import android.content.res.Resources;
 import android.databinding.BindingAdapter;
 import android.support.annotation.ColorRes;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.util.SparseArray;
 import android.view.View;
+import android.widget.ImageView;
 
 import com.algolia.instantsearch.model.Errors;
 
@@ -14,6 +16,10 @@ import com.algolia.instantsearch.model.Errors;
  */
 public class BindingHelper {
     private static final SparseArray<String> bindings = new SparseArray<>();
+    /** The attribute holding the aspect ratio of each ImageView's image, by View id. */
+    private static final SparseArray<String> aspectRatioBindings = new SparseArray<>();
+    /** The attributes holding the width and height of each ImageView's image, by View id. */
+    private static final SparseArray<String[]> sizeBindings = new SparseArray<>();
 
     @SuppressWarnings("unused") // called via Data Binding
     @Deprecated // Should not be used by library users
@@ -49,6 +55,44 @@ public class BindingHelper {
         bindAndHighlight(view, attributeName, colorStr);
     }
 
+    @SuppressWarnings({"unused"}) // called via Data Binding
+    @Deprecated // Should not be used by library users
+    @BindingAdapter({"attribute", "aspectRatioAttribute"})
+    public static void bindAspectRatio(@NonNull View view, String attributeName, String aspectRatioAttribute) {
+        // Bind attribute, reserve the image's size from its aspect ratio
+        checkImageView(view);
+        if (notAlreadyMapped(view.getId())) {
+            bindAttribute(view, attributeName);
+            aspectRatioBindings.put(view.getId(), aspectRatioAttribute);
+        }
+    }
+
+    @SuppressWarnings({"unused"}) // called via Data Binding
+    @Deprecated // Should not be used by library users
+    @BindingAdapter({"attribute", "widthAttribute", "heightAttribute"})
+    public static void bindSize(@NonNull View view, String attributeName, String widthAttribute, String heightAttribute) {
+        // Bind attribute, reserve the image's size from its dimensions
+        checkImageView(view);
+        if (notAlreadyMapped(view.getId())) {
+            bindAttribute(view, attributeName);
+            sizeBindings.put(view.getId(), new String[]{widthAttribute, heightAttribute});
+        }
+    }
+
+    @SuppressWarnings({"unused", "UnusedParameters"}) // called via Data Binding and throws
+    @Deprecated // Should not be used by library users
+    @BindingAdapter({"aspectRatioAttribute"})
+    public static void bindInvalidSize(@NonNull View view, String aspectRatioAttribute) {
+        throwBindingError(view, Errors.BINDING_IMAGE_SIZE_NO_ATTR);
+    }
+
+    @SuppressWarnings({"unused", "UnusedParameters"}) // called via Data Binding and throws
+    @Deprecated // Should not be used by library users
+    @BindingAdapter({"widthAttribute", "heightAttribute"})
+    public static void bindInvalidSize(@NonNull View view, String widthAttribute, String heightAttribute) {
+        throwBindingError(view, Errors.BINDING_IMAGE_SIZE_NO_ATTR);
+    }
+
     @SuppressWarnings({"unused", "UnusedParameters"}) // called via Data Binding and throws
     @Deprecated // Should not be used by library users
     @BindingAdapter({"highlighted"})
@@ -81,6 +125,12 @@ public class BindingHelper {
         bindings.put(viewId, attributeName);
     }
 
+    private static void checkImageView(@NonNull View view) {
+        if (!(view instanceof ImageView)) {
+            throwBindingError(view, Errors.BINDING_IMAGE_SIZE_NOT_IMAGE);
+        }
+    }
+
     private static void throwBindingError(@NonNull View view, String message) {
         final Resources r = view.getContext().getResources();
         int id = view.getId();
@@ -117,4 +167,24 @@ public class BindingHelper {
     public static SparseArray<String> getBindings() {
         return bindings;
     }
+
+    /**
+     * Gets the attribute holding the aspect ratio of an ImageView's image.
+     *
+     * @param viewId the ImageView's id.
+     * @return the attribute name, or {@code null} if none was bound.
+     */
+    public static @Nullable String getAspectRatioAttribute(int viewId) {
+        return aspectRatioBindings.get(viewId);
+    }
+
+    /**
+     * Gets the attributes holding the width and height of an ImageView's image.
+     *
+     * @param viewId the ImageView's id.
+     * @return an array with the width and height attribute names, or {@code null} if none were bound.
+     */
+    public static @Nullable String[] getSizeAttributes(int viewId) {
+        return sizeBindings.get(viewId);
+    }
 }
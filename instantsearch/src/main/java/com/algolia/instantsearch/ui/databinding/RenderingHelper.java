@@ -44,7 +44,7 @@ public class RenderingHelper {
      * @param attributeName the attribute's name.
      * @return the {@link ColorRes} associated with this attribute, or 0 if there is none.
      */
-    public @ColorRes Integer getHighlightColor(String attributeName) {
+    public synchronized @ColorRes Integer getHighlightColor(String attributeName) {
         try {
             return attributeColors.get(attributeName);
         } catch (NullPointerException e) {
@@ -58,10 +58,19 @@ public class RenderingHelper {
      * @param attributeName the attribute's name.
      * @return {@code true} if the attribute was marked for highlighting.
      */
-    public boolean shouldHighlight(String attributeName) {
+    public synchronized boolean shouldHighlight(String attributeName) {
         return highlightedAttributes.contains(attributeName);
     }
 
+    /**
+     * Gets the attributes to highlight.
+     *
+     * @return a copy of the Set of attributes marked for highlighting.
+     */
+    public synchronized @NonNull Set<String> getHighlightedAttributes() {
+        return new HashSet<>(highlightedAttributes);
+    }
+
     /**
      * Sets a color for this attribute's highlighting.
      *
@@ -69,7 +78,7 @@ public class RenderingHelper {
      * @param colorId       a {@link ColorRes} to associate with this attribute.
      * @return the previous color associated with this attribute or {@code null} if there was none.
      */
-    Integer addColor(String attributeName, @ColorRes int colorId) {
+    synchronized Integer addColor(String attributeName, @ColorRes int colorId) {
         return attributeColors.put(attributeName, colorId);
     }
 
@@ -79,7 +88,7 @@ public class RenderingHelper {
      * @param attributeName the attribute to color.
      * @return {@code true} if the attribute was not already highlighted, {@code false} otherwise.
      */
-    boolean addHighlight(String attributeName) {
+    synchronized boolean addHighlight(String attributeName) {
         return highlightedAttributes.add(attributeName);
     }
 }
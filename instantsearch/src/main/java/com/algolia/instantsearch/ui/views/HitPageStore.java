@@ -0,0 +1,282 @@
+package com.algolia.instantsearch.ui.views;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stores the hits displayed by {@link Hits} page by page, keeping in memory only a bounded amount of them.
+ * <p>
+ * When there are more loaded hits than the budget, the pages farthest from the visible ones are evicted:
+ * their positions are kept with the {@link #getItemKey key} of each hit, and their hits read as {@link #PLACEHOLDER}
+ * until the page is {@link #restorePage restored}.
+ */
+final class HitPageStore {
+    /** The hit read at the positions of an evicted page. */
+    static final JSONObject PLACEHOLDER = new JSONObject();
+
+    private final List<Page> pages = new ArrayList<>();
+    private int size;
+    private int loadedCount;
+    private int evictionCount;
+    private int restorationCount;
+
+    private static class Page {
+        final int number;
+        final int start;
+        /** The hits of this page, or {@code null} if it was evicted. */
+        @Nullable List<JSONObject> hits = new ArrayList<>();
+        /** The key of each hit, kept when the page is evicted so that ids stay stable. */
+        @NonNull final List<Object> keys = new ArrayList<>();
+        boolean isRestoring;
+
+        Page(int number, int start) {
+            this.number = number;
+            this.start = start;
+        }
+
+        int size() {
+            return keys.size();
+        }
+
+        boolean intersects(int first, int last) {
+            return start <= last && start + size() > first;
+        }
+
+        /** Gets how far this page is from a range of positions. */
+        int distanceTo(int first, int last) {
+            if (start > last) {
+                return start - last;
+            }
+            return Math.max(0, first - (start + size() - 1));
+        }
+    }
+
+    void clear() {
+        pages.clear();
+        size = 0;
+        loadedCount = 0;
+    }
+
+    /** Starts a new page, to which the next {@link #add added} hits belong. */
+    void startPage() {
+        pages.add(new Page(pages.size(), size));
+    }
+
+    /** Adds a hit to the last page. */
+    void add(@NonNull JSONObject hit) {
+        if (pages.isEmpty()) {
+            startPage();
+        }
+        final Page page = pages.get(pages.size() - 1);
+        if (page.hits == null) {
+            throw new IllegalStateException("Cannot add a hit to evicted page " + page.number + ".");
+        }
+        page.hits.add(hit);
+        page.keys.add(getItemKey(hit));
+        size++;
+        loadedCount++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int getLoadedCount() {
+        return loadedCount;
+    }
+
+    /**
+     * Gets the hit at a given position.
+     *
+     * @return the hit, or {@link #PLACEHOLDER} if its page was evicted.
+     */
+    @NonNull
+    JSONObject get(int position) {
+        final Page page = getPageAt(position);
+        return page.hits != null ? page.hits.get(position - page.start) : PLACEHOLDER;
+    }
+
+    /** Gets the key identifying a hit across responses: its objectID, or the hit itself if it has none. */
+    @NonNull
+    static Object getItemKey(@NonNull JSONObject hit) {
+        final String objectID = hit.optString("objectID", null);
+        return objectID != null ? objectID : hit;
+    }
+
+    @NonNull
+    Object getKey(int position) {
+        final Page page = getPageAt(position);
+        return page.keys.get(position - page.start);
+    }
+
+    /**
+     * Gets every hit.
+     *
+     * @return the hits, or {@code null} if some pages are evicted.
+     */
+    @Nullable
+    List<JSONObject> getHits() {
+        if (loadedCount != size) {
+            return null;
+        }
+        final List<JSONObject> hits = new ArrayList<>(size);
+        for (Page page : pages) {
+            //noinspection ConstantConditions: no page is evicted
+            hits.addAll(page.hits);
+        }
+        return hits;
+    }
+
+    /** Gets the hits of the pages that are not evicted. */
+    @NonNull
+    List<JSONObject> getLoadedHits() {
+        final List<JSONObject> hits = new ArrayList<>(loadedCount);
+        for (Page page : pages) {
+            if (page.hits != null) {
+                hits.addAll(page.hits);
+            }
+        }
+        return hits;
+    }
+
+    @NonNull
+    List<Object> getKeys() {
+        final List<Object> keys = new ArrayList<>(size);
+        for (Page page : pages) {
+            keys.addAll(page.keys);
+        }
+        return keys;
+    }
+
+    /**
+     * Evicts the pages farthest from the visible positions until at most {@code maxLoadedCount} hits are loaded.
+     * The visible pages and the last one are never evicted.
+     *
+     * @return the amount of evicted pages.
+     */
+    int trim(int firstVisible, int lastVisible, int maxLoadedCount) {
+        int evicted = 0;
+        while (loadedCount > maxLoadedCount) {
+            Page farthestPage = null;
+            int farthestDistance = -1;
+            for (int i = 0; i < pages.size() - 1; i++) {
+                final Page page = pages.get(i);
+                if (page.hits == null || page.intersects(firstVisible, lastVisible)) {
+                    continue;
+                }
+                final int distance = page.distanceTo(firstVisible, lastVisible);
+                if (distance > farthestDistance) {
+                    farthestPage = page;
+                    farthestDistance = distance;
+                }
+            }
+            if (farthestPage == null) {
+                break;
+            }
+            evict(farthestPage);
+            evicted++;
+        }
+        evictionCount += evicted;
+        return evicted;
+    }
+
+    private void evict(@NonNull Page page) {
+        for (int i = 0; i < page.keys.size(); i++) {
+            if (page.keys.get(i) instanceof JSONObject) {
+                page.keys.set(i, new Object()); // A hit without objectID is its own key: don't retain it
+            }
+        }
+        loadedCount -= page.size();
+        page.hits = null;
+    }
+
+    /**
+     * Gets the evicted pages within a range of positions that are not being restored yet.
+     *
+     * @return the numbers of these pages.
+     */
+    @NonNull
+    List<Integer> getEvictedPages(int first, int last) {
+        List<Integer> numbers = null;
+        for (Page page : pages) {
+            if (page.hits == null && !page.isRestoring && page.intersects(first, last)) {
+                if (numbers == null) {
+                    numbers = new ArrayList<>();
+                }
+                numbers.add(page.number);
+            }
+        }
+        return numbers != null ? numbers : Collections.<Integer>emptyList();
+    }
+
+    void setRestoring(int number, boolean isRestoring) {
+        if (number < pages.size()) {
+            pages.get(number).isRestoring = isRestoring;
+        }
+    }
+
+    /**
+     * Restores an evicted page with its hits loaded again. As positions cannot move,
+     * extra hits are ignored and missing ones are replaced by {@link #PLACEHOLDER}.
+     *
+     * @return {@code true} if the page was restored, {@code false} if it was not evicted.
+     */
+    boolean restorePage(int number, @NonNull List<JSONObject> hits) {
+        if (number >= pages.size()) {
+            return false;
+        }
+        final Page page = pages.get(number);
+        page.isRestoring = false;
+        if (page.hits != null) {
+            return false;
+        }
+        final List<JSONObject> pageHits = new ArrayList<>(page.size());
+        for (int i = 0; i < page.size(); i++) {
+            pageHits.add(i < hits.size() ? hits.get(i) : PLACEHOLDER);
+        }
+        page.hits = pageHits;
+        loadedCount += page.size();
+        restorationCount++;
+        return true;
+    }
+
+    int getPageStart(int number) {
+        return pages.get(number).start;
+    }
+
+    int getPageSize(int number) {
+        return pages.get(number).size();
+    }
+
+    int getEvictionCount() {
+        return evictionCount;
+    }
+
+    int getRestorationCount() {
+        return restorationCount;
+    }
+
+    @NonNull
+    private Page getPageAt(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Invalid position " + position + ", size is " + size + ".");
+        }
+        int low = 0;
+        int high = pages.size() - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (pages.get(middle).start <= position) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return pages.get(low);
+    }
+}
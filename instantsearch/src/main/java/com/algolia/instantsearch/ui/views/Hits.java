@@ -7,9 +7,15 @@ import android.content.res.TypedArray;
 import android.databinding.DataBindingUtil;
 import android.databinding.ViewDataBinding;
 import android.graphics.drawable.Drawable;
+import android.os.AsyncTask;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.StaggeredGridLayoutManager;
@@ -29,7 +35,7 @@ import android.widget.RatingBar;
 import android.widget.TextView;
 
 import com.algolia.instantsearch.R;
-import com.algolia.instantsearch.helpers.Highlighter;
+import com.algolia.instantsearch.helpers.HighlightCache;
 import com.algolia.instantsearch.helpers.Searcher;
 import com.algolia.instantsearch.model.Errors;
 import com.algolia.instantsearch.model.SearchResults;
@@ -40,7 +46,7 @@ import com.algolia.instantsearch.ui.utils.ItemClickSupport;
 import com.algolia.instantsearch.ui.utils.ItemClickSupport.OnItemClickListener;
 import com.algolia.instantsearch.ui.utils.ItemClickSupport.OnItemLongClickListener;
 import com.algolia.instantsearch.ui.utils.LayoutViews;
-import com.algolia.instantsearch.utils.JSONUtils;
+import com.algolia.instantsearch.utils.AttributePath;
 import com.algolia.search.saas.AlgoliaException;
 import com.algolia.search.saas.Query;
 import com.bumptech.glide.Glide;
@@ -50,9 +56,10 @@ import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Displays your search results in a flexible way. Built over a {@link RecyclerView}, it displays a limited window into a large data set of search results.
@@ -62,6 +69,22 @@ public class Hits extends RecyclerView implements AlgoliaWidget {
     public static final int DEFAULT_HITS_PER_PAGE = 20;
     /** Default amount of remaining results to display before loading a new page */
     public static final int DEFAULT_REMAINING_ITEMS = 5;
+    /** Default page load time (in ms) assumed for prefetching until an actual one is measured */
+    public static final int DEFAULT_PAGE_LOAD_TIME = 500;
+    /** Margin applied to the page load time when prefetching, to let the next page arrive before the end of the list is reached */
+    private static final float PREFETCH_SAFETY_FACTOR = 1.5f;
+    /** Default amount of hits displayed before the rest of a new page, used until the list has been laid out */
+    public static final int DEFAULT_FIRST_STAGE_SIZE = 8;
+    /** Default maximum amount of hits kept in memory, beyond which the pages farthest from the visible hits are evicted */
+    public static final int DEFAULT_MAX_LOADED_HITS = 500;
+    /** Default amount of item views inflated in advance, while the main thread is idle before the first results */
+    public static final int DEFAULT_PREINFLATED_ITEMS = 8;
+    /** Default amount of hits whose images are preloaded ahead of the visible ones, in the scrolling direction */
+    public static final int DEFAULT_PRELOADED_ITEMS = 6;
+    /** Default maximum amount of bytes taken by the images of the visible and preloaded hits */
+    public static final int DEFAULT_IMAGE_MEMORY_BUDGET = 8 * 1024 * 1024;
+    /** The amount of recycled views a {@link RecycledViewPool} keeps by default */
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 5;
 
     private static final int MISSING_VALUE = Integer.MIN_VALUE;
 
@@ -70,8 +93,17 @@ public class Hits extends RecyclerView implements AlgoliaWidget {
 
     private final @NonNull Integer hitsPerPage;
     private final int layoutId;
+    /** The maximum amount of hits kept in memory. */
+    private int maxLoadedHits;
+    /** The amount of item views to inflate in advance. */
+    private int preinflatedItemCount;
+    private boolean isViewPoolShared;
 
     private @NonNull HitsAdapter adapter;
+    /** The highlighted attributes of the hits, rendered when each page arrives. */
+    private @NonNull HighlightCache highlightCache;
+    /** Preloads the images of the hits about to be displayed. */
+    private @NonNull HitsImagePreloader imagePreloader;
     private @NonNull LayoutManager layoutManager;
     private @NonNull Searcher searcher;
     private @NonNull InputMethodManager imeManager;
@@ -79,6 +111,22 @@ public class Hits extends RecyclerView implements AlgoliaWidget {
     private @Nullable final InfiniteScrollListener infiniteScrollListener;
     private @Nullable OnScrollListener keyboardListener;
     private @Nullable View emptyView;
+    /** Inflates item views in advance while the main thread is idle, if it was started. */
+    private @Nullable Preinflater preinflater;
+    /** Adds the remaining hits of a page whose first screenful was already displayed, if any. */
+    private @Nullable Runnable pendingStage;
+    /** The hits replacing the current ones once their diff is computed, if any. */
+    private @Nullable List<JSONObject> pendingHits;
+    /** Incremented on each update of the hits, so that a diff computed for outdated hits is dropped. */
+    private int updateGeneration;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    /** Updates the window of loaded hits after a scroll. */
+    private final Runnable windowUpdate = new Runnable() {
+        @Override
+        public void run() {
+            updateWindow();
+        }
+    };
 
     /**
      * Constructs a new Hits with the given context's theme and the supplied attribute set.
@@ -93,11 +141,16 @@ public class Hits extends RecyclerView implements AlgoliaWidget {
         if (isInEditMode()) {
             hitsPerPage = 0;
             remainingItemsBeforeLoading = 0;
+            maxLoadedHits = 0;
             layoutId = 0;
             infiniteScrollListener = null;
             //noinspection ConstantConditions Edit mode initialization
             adapter = null;
             //noinspection ConstantConditions
+            highlightCache = null;
+            //noinspection ConstantConditions
+            imagePreloader = null;
+            //noinspection ConstantConditions
             searcher = null;
             //noinspection ConstantConditions
             layoutManager = null;
@@ -107,11 +160,21 @@ public class Hits extends RecyclerView implements AlgoliaWidget {
         }
 
         boolean infiniteScroll;
+        boolean prefetch;
+        boolean sharedViewPool;
+        int preloadedItemCount;
+        int imageMemoryBudget;
         final TypedArray styledAttributes = context.getTheme().obtainStyledAttributes(attrs, R.styleable.Hits, 0, 0);
         try {
             hitsPerPage = styledAttributes.getInt(R.styleable.Hits_hitsPerPage, DEFAULT_HITS_PER_PAGE);
             layoutId = styledAttributes.getResourceId(R.styleable.Hits_itemLayout, 0);
             infiniteScroll = styledAttributes.getBoolean(R.styleable.Hits_infiniteScroll, true);
+            prefetch = styledAttributes.getBoolean(R.styleable.Hits_prefetch, false);
+            maxLoadedHits = styledAttributes.getInt(R.styleable.Hits_maxLoadedHits, DEFAULT_MAX_LOADED_HITS);
+            preinflatedItemCount = styledAttributes.getInt(R.styleable.Hits_preinflatedItems, DEFAULT_PREINFLATED_ITEMS);
+            sharedViewPool = styledAttributes.getBoolean(R.styleable.Hits_sharedViewPool, false);
+            preloadedItemCount = styledAttributes.getInt(R.styleable.Hits_preloadedItems, DEFAULT_PRELOADED_ITEMS);
+            imageMemoryBudget = styledAttributes.getInt(R.styleable.Hits_imageMemoryBudget, DEFAULT_IMAGE_MEMORY_BUDGET);
             if (styledAttributes.getBoolean(R.styleable.Hits_autoHideKeyboard, false)) {
                 enableKeyboardAutoHiding();
             }
@@ -132,15 +195,29 @@ public class Hits extends RecyclerView implements AlgoliaWidget {
 
         this.setHasFixedSize(true); // Enables optimisations as the view's width & height are fixed
 
-        adapter = new HitsAdapter();
+        highlightCache = new HighlightCache(context);
+        imagePreloader = new HitsImagePreloader(this, preloadedItemCount, imageMemoryBudget);
+        adapter = new HitsAdapter(highlightCache, imagePreloader, layoutId);
         adapter.registerAdapterDataObserver(new AdapterDataObserver() {
             @Override
             public void onChanged() {
                 super.onChanged();
                 updateEmptyView();
             }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                updateEmptyView();
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                updateEmptyView();
+            }
         });
         setAdapter(adapter);
+        setViewPoolShared(sharedViewPool);
+        addOnScrollListener(imagePreloader);
 
         imeManager = (InputMethodManager) context.getSystemService(Context.INPUT_METHOD_SERVICE);
         layoutManager = new LinearLayoutManager(context);
@@ -148,10 +225,208 @@ public class Hits extends RecyclerView implements AlgoliaWidget {
 
         infiniteScrollListener = infiniteScroll ? new InfiniteScrollListener() : null;
         if (infiniteScroll) {
+            infiniteScrollListener.setPrefetchEnabled(prefetch);
             addOnScrollListener(infiniteScrollListener);
         }
     }
 
+    /**
+     * Enables or disables prefetching: the next page is then requested in advance when the user scrolls fast enough
+     * to reach the end of the list before it would be loaded.
+     *
+     * @param enabled {@code true} to prefetch the next page according to the scrolling speed.
+     * @throws IllegalStateException if infinite scroll is disabled.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public void setPrefetchEnabled(boolean enabled) {
+        if (infiniteScrollListener == null) {
+            throw new IllegalStateException(Errors.HITS_PREFETCH_INFINITESCROLL);
+        }
+        infiniteScrollListener.setPrefetchEnabled(enabled);
+    }
+
+
+    /**
+     * Sets the maximum amount of hits kept in memory. When infinite scroll loads more, the pages farthest
+     * from the visible hits are evicted and displayed empty, then loaded again when they are scrolled back into view.
+     *
+     * @param maxLoadedHits the maximum amount of loaded hits, {@link #DEFAULT_MAX_LOADED_HITS} by default.
+     * @throws IllegalArgumentException if {@code maxLoadedHits} is not positive.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public void setMaxLoadedHits(int maxLoadedHits) {
+        if (maxLoadedHits <= 0) {
+            throw new IllegalArgumentException("maxLoadedHits should be positive, got " + maxLoadedHits + ".");
+        }
+        this.maxLoadedHits = maxLoadedHits;
+        updateWindow();
+    }
+
+    /**
+     * Gets the maximum amount of hits kept in memory.
+     *
+     * @return the value of the attribute maxLoadedHits if specified, else DEFAULT_MAX_LOADED_HITS.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public int getMaxLoadedHits() {
+        return maxLoadedHits;
+    }
+
+    /**
+     * Gets the amount of hits currently kept in memory.
+     *
+     * @return the amount of displayed hits whose page was not evicted.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public int getLoadedHitCount() {
+        return adapter.getStore().getLoadedCount();
+    }
+
+    /**
+     * Gets the amount of pages evicted to stay within the {@link #setMaxLoadedHits(int) maximum amount of loaded hits}.
+     *
+     * @return the amount of page evictions since this widget was created.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public int getEvictedPageCount() {
+        return adapter.getStore().getEvictionCount();
+    }
+
+    /**
+     * Gets the amount of evicted pages that were loaded again as they came back into view.
+     *
+     * @return the amount of page restorations since this widget was created.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public int getRestoredPageCount() {
+        return adapter.getStore().getRestorationCount();
+    }
+
+    /**
+     * Sets the amount of item views to inflate in advance: when the widget is attached, they are inflated one by one
+     * whenever the main thread is idle, so that displaying the first results does not wait for their inflation.
+     *
+     * @param preinflatedItemCount the amount of item views to inflate before the first results,
+     *                             {@link #DEFAULT_PREINFLATED_ITEMS} by default. {@code 0} disables pre-inflation.
+     * @throws IllegalArgumentException if {@code preinflatedItemCount} is negative.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public void setPreinflatedItemCount(int preinflatedItemCount) {
+        if (preinflatedItemCount < 0) {
+            throw new IllegalArgumentException("preinflatedItemCount should not be negative, got " + preinflatedItemCount + ".");
+        }
+        this.preinflatedItemCount = preinflatedItemCount;
+        updateMaxRecycledViews();
+        if (getWindowToken() != null) {
+            startPreinflating();
+        }
+    }
+
+    /**
+     * Gets the amount of item views inflated in advance.
+     *
+     * @return the value of the attribute preinflatedItems if specified, else DEFAULT_PREINFLATED_ITEMS.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public int getPreinflatedItemCount() {
+        return preinflatedItemCount;
+    }
+
+    /**
+     * Sets the amount of hits whose images are preloaded: as the user scrolls, the images bound to the hits following
+     * the visible ones in the scrolling direction are loaded in advance, so that they are displayed as soon as their row appears.
+     *
+     * @param preloadedItemCount the amount of hits to preload, {@link #DEFAULT_PRELOADED_ITEMS} by default. {@code 0} disables preloading.
+     * @throws IllegalArgumentException if {@code preloadedItemCount} is negative.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public void setPreloadedItemCount(int preloadedItemCount) {
+        if (preloadedItemCount < 0) {
+            throw new IllegalArgumentException("preloadedItemCount should not be negative, got " + preloadedItemCount + ".");
+        }
+        imagePreloader.setPreloadedItemCount(preloadedItemCount);
+    }
+
+    /**
+     * Gets the amount of hits whose images are preloaded.
+     *
+     * @return the value of the attribute preloadedItems if specified, else DEFAULT_PRELOADED_ITEMS.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public int getPreloadedItemCount() {
+        return imagePreloader.getPreloadedItemCount();
+    }
+
+    /**
+     * Sets the maximum amount of memory taken by the images of the visible and preloaded hits: fewer hits are preloaded if their images would exceed it.
+     * Each image is estimated as a bitmap of its view's size with 4 bytes per pixel. The images of the rows scrolled out of view
+     * are released to Glide's memory cache, so that this widget only holds the ones it displays.
+     *
+     * @param imageMemoryBudget the budget in bytes, {@link #DEFAULT_IMAGE_MEMORY_BUDGET} by default. {@code 0} removes the limit.
+     * @throws IllegalArgumentException if {@code imageMemoryBudget} is negative.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public void setImageMemoryBudget(int imageMemoryBudget) {
+        if (imageMemoryBudget < 0) {
+            throw new IllegalArgumentException("imageMemoryBudget should not be negative, got " + imageMemoryBudget + ".");
+        }
+        imagePreloader.setMemoryBudget(imageMemoryBudget);
+    }
+
+    /**
+     * Gets the maximum amount of memory taken by the images of the visible and preloaded hits.
+     *
+     * @return the value of the attribute imageMemoryBudget if specified, else DEFAULT_IMAGE_MEMORY_BUDGET.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public int getImageMemoryBudget() {
+        return imagePreloader.getMemoryBudget();
+    }
+
+    /**
+     * Sets a rewriter for the urls of the images bound to ImageViews, for instance to request renditions sized for the views
+     * instead of full-size images. It applies to the images bound after this call.
+     *
+     * @param urlRewriter an {@link ImageUrlRewriter}, or {@code null} to load the urls found in the hits.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public void setImageUrlRewriter(@Nullable ImageUrlRewriter urlRewriter) {
+        imagePreloader.setUrlRewriter(urlRewriter);
+    }
+
+    /**
+     * Gets the rewriter for the urls of the images bound to ImageViews.
+     *
+     * @return the {@link ImageUrlRewriter}, if any.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    @Nullable
+    public ImageUrlRewriter getImageUrlRewriter() {
+        return imagePreloader.getUrlRewriter();
+    }
+
+    /**
+     * Shares the item views of this widget with the other Hits of its Context that use the same item layout and share theirs,
+     * for instance across the tabs of an Activity. Views inflated for one of them can then be displayed by any other.
+     *
+     * @param shared {@code true} to share item views, {@code false} to keep them in a pool of this widget's own.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public void setViewPoolShared(boolean shared) {
+        isViewPoolShared = shared && layoutId != 0;
+        setRecycledViewPool(isViewPoolShared ? HitsViewPool.getShared(getContext(), layoutId) : new HitsViewPool());
+        updateMaxRecycledViews();
+    }
+
+    /**
+     * Checks if this widget shares its item views with the other Hits of its Context.
+     *
+     * @return {@code true} if the item views are shared.
+     */
+    @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
+    public boolean isViewPoolShared() {
+        return isViewPoolShared;
+    }
 
     /**
      * Sets a listener for click events on child views.
@@ -180,14 +455,17 @@ public class Hits extends RecyclerView implements AlgoliaWidget {
      */
     @SuppressWarnings({"WeakerAccess", "unused"}) // For library users
     public void clear() {
+        cancelPendingUpdates();
+        imagePreloader.cancel();
         adapter.clear();
+        highlightCache.clear();
     }
 
     /**
      * Gets the hit at a given position.
      *
      * @param position the position to look at.
-     * @return a JSONObject representing the hit.
+     * @return a JSONObject representing the hit, empty if its page was evicted and is not loaded again yet.
      */
     public JSONObject get(int position) {
         return adapter.getItemAt(position);
@@ -228,6 +506,13 @@ public class Hits extends RecyclerView implements AlgoliaWidget {
      * @param isReplacing {@code true} if the given hits should replace the current hits.
      */
     private void addHits(@Nullable SearchResults results, boolean isReplacing) {
+        if (isReplacing) {
+            cancelPendingUpdates();
+            imagePreloader.cancel();
+        } else {
+            runPendingUpdates(); // Keep the hits in order if a new page arrives before the previous update was applied
+        }
+
         if (results == null) {
             if (isReplacing) {
                 clear();
@@ -238,28 +523,213 @@ public class Hits extends RecyclerView implements AlgoliaWidget {
             return;
         }
 
-        JSONArray hits = results.hits;
+        final List<JSONObject> hits = results.getHitList();
 
         if (isReplacing) {
+            if (infiniteScrollListener != null) {
+                infiniteScrollListener.setCurrentlyLoading(false);
+            }
+            if (adapter.getItemCount() != 0 && getWindowToken() != null && adapter.getHits() != null) {
+                diffHits(hits);
+                return;
+            }
+
             adapter.clear(false);
+            highlightCache.retain(hits);
+            // Display the first screenful right away, the rest of the page is added on the next loop
+            final int firstStageEnd = getWindowToken() != null ? Math.min(hits.size(), getFirstStageSize()) : hits.size();
+            for (int i = 0; i < firstStageEnd; ++i) {
+                adapter.add(hits.get(i));
+            }
+            adapter.notifyDataSetChanged();
+            smoothScrollToPosition(0);
+
+            if (firstStageEnd < hits.size()) {
+                pendingStage = new Runnable() {
+                    @Override
+                    public void run() {
+                        pendingStage = null;
+                        insertHits(hits, firstStageEnd, false);
+                    }
+                };
+                post(pendingStage);
+            }
+        } else {
+            insertHits(hits, 0, true);
         }
+    }
 
-        for (int i = 0; i < hits.length(); ++i) {
-            JSONObject hit = hits.optJSONObject(i);
-            if (hit != null) {
-                adapter.add(hit);
+    private void insertHits(@NonNull List<JSONObject> hits, int start, boolean isNewPage) {
+        final int positionStart = adapter.getItemCount();
+        if (isNewPage) {
+            adapter.startPage();
+        }
+        for (int i = start; i < hits.size(); ++i) {
+            adapter.add(hits.get(i));
+        }
+        adapter.notifyItemRangeInserted(positionStart, adapter.getItemCount() - positionStart);
+        if (isNewPage) {
+            updateWindow();
+        }
+    }
+
+    /**
+     * Evicts the pages far from the visible hits when more than {@link #maxLoadedHits} are loaded,
+     * and loads again the evicted pages that come close to the visible hits.
+     */
+    private void updateWindow() {
+        final HitPageStore store = adapter.getStore();
+        if (store.size() == 0 || searcher == null) {
+            return;
+        }
+        final int firstVisiblePosition = getFirstVisibleItemPosition();
+        final int lastVisiblePosition = getLastVisibleItemPosition();
+        if (firstVisiblePosition == NO_POSITION) {
+            return;
+        }
+        // Keep a page worth of hits on each side, so that they are loaded before being scrolled into view
+        final int first = firstVisiblePosition - hitsPerPage;
+        final int last = lastVisiblePosition + hitsPerPage;
+        if (store.trim(first, last, maxLoadedHits) > 0) {
+            highlightCache.retain(store.getLoadedHits()); // Don't keep the highlights of the evicted hits
+        }
+        for (int page : store.getEvictedPages(first, last)) {
+            restorePage(page);
+        }
+    }
+
+    private void restorePage(final int page) {
+        final HitPageStore store = adapter.getStore();
+        final int generation = updateGeneration;
+        store.setRestoring(page, true);
+        final boolean isLoading = searcher.reloadPage(page, new Searcher.PageReloadListener() {
+            @Override
+            public void onPageReloaded(int page, @Nullable SearchResults results, @Nullable AlgoliaException error) {
+                if (generation != updateGeneration) {
+                    return; // The hits were replaced in the meantime
+                }
+                if (error != null) {
+                    Log.e("Algolia|Hits", "Error while loading page " + page + " again: " + error.getMessage());
+                }
+                // The processed hits, as those of the page before its eviction
+                final List<JSONObject> hits = results != null ? results.getHitList() : null;
+                if (hits == null) {
+                    store.setRestoring(page, false); // It will be requested again on the next scroll
+                } else if (store.restorePage(page, hits)) {
+                    adapter.notifyItemRangeChanged(store.getPageStart(page), store.getPageSize(page));
+                }
             }
+        });
+        if (!isLoading) {
+            store.setRestoring(page, false);
         }
+    }
 
-        if (isReplacing) {
+    /**
+     * Gets the amount of hits to display before the rest of a new page: one more than the currently visible rows.
+     *
+     * @return the size of the first screenful.
+     */
+    private int getFirstStageSize() {
+        final int visibleCount = getChildCount();
+        return visibleCount > 0 ? visibleCount + 1 : DEFAULT_FIRST_STAGE_SIZE;
+    }
+
+    /**
+     * Replaces the displayed hits with precise notifications, computing their diff off the main thread.
+     *
+     * @param hits the new hits.
+     */
+    private void diffHits(@NonNull final List<JSONObject> hits) {
+        final List<JSONObject> oldHits = adapter.getHits();
+        final int generation = ++updateGeneration;
+        pendingHits = hits;
+        AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new HitsDiffCallback(oldHits, hits), true);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != updateGeneration) {
+                            return; // The hits changed in the meantime
+                        }
+                        pendingHits = null;
+                        adapter.setHits(hits);
+                        highlightCache.retain(hits);
+                        diff.dispatchUpdatesTo(adapter);
+                    }
+                });
+            }
+        });
+    }
+
+    /** Applies right away the updates that are waiting for the next loop or for their diff. */
+    private void runPendingUpdates() {
+        if (pendingStage != null) {
+            final Runnable stage = pendingStage;
+            removeCallbacks(stage);
+            stage.run();
+        }
+        if (pendingHits != null) {
+            updateGeneration++;
+            adapter.setHits(pendingHits);
+            highlightCache.retain(pendingHits);
             adapter.notifyDataSetChanged();
-            smoothScrollToPosition(0);
-            if (infiniteScrollListener != null) {
-                infiniteScrollListener.setCurrentlyLoading(false);
+            pendingHits = null;
+        }
+    }
+
+    private void cancelPendingUpdates() {
+        if (pendingStage != null) {
+            removeCallbacks(pendingStage);
+            pendingStage = null;
+        }
+        updateGeneration++;
+        pendingHits = null;
+    }
+
+    /**
+     * Calculate the position of first visible item, notwithstanding the LayoutManager's class.
+     *
+     * @return the first visible item's position in the list, or {@link #NO_POSITION} if it is unknown.
+     */
+    int getFirstVisibleItemPosition() {
+        int firstVisiblePosition = NO_POSITION;
+        if (layoutManager instanceof StaggeredGridLayoutManager) {
+            // first position = smallest valid value within the list of positions
+            for (int position : ((StaggeredGridLayoutManager) layoutManager).findFirstVisibleItemPositions(null)) {
+                if (position != NO_POSITION && (firstVisiblePosition == NO_POSITION || position < firstVisiblePosition)) {
+                    firstVisiblePosition = position;
+                }
             }
-        } else {
-            adapter.notifyItemRangeInserted(adapter.getItemCount(), hits.length());
+        } else if (layoutManager instanceof LinearLayoutManager) {
+            firstVisiblePosition = ((LinearLayoutManager) layoutManager).findFirstVisibleItemPosition();
+        }
+        return firstVisiblePosition;
+    }
+
+    /**
+     * Calculate the position of last visible item, notwithstanding the LayoutManager's class.
+     *
+     * @return the last visible item's position in the list.
+     */
+    int getLastVisibleItemPosition() {
+        int lastVisiblePosition = 0;
+        if (layoutManager instanceof StaggeredGridLayoutManager) {
+            int[] lastVisibleItemPositions = ((StaggeredGridLayoutManager) layoutManager).findLastVisibleItemPositions(null);
+            // last position = biggest value within the list of positions
+            int maxSize = lastVisibleItemPositions[0];
+            for (int lastVisibleItemPosition : lastVisibleItemPositions) {
+                if (lastVisibleItemPosition > maxSize) {
+                    maxSize = lastVisibleItemPosition;
+                }
+            }
+            lastVisiblePosition = maxSize;
+        } else if (layoutManager instanceof LinearLayoutManager) {
+            lastVisiblePosition = ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
         }
+        return lastVisiblePosition;
     }
 
     private void updateEmptyView() {
@@ -273,9 +743,42 @@ public class Hits extends RecyclerView implements AlgoliaWidget {
         }
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        startPreinflating();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        stopPreinflating();
+        super.onDetachedFromWindow();
+    }
+
+    /** Lets the pool keep every item view inflated in advance. */
+    private void updateMaxRecycledViews() {
+        getRecycledViewPool().setMaxRecycledViews(0, Math.max(DEFAULT_MAX_RECYCLED_VIEWS, preinflatedItemCount));
+    }
+
+    private void startPreinflating() {
+        if (preinflater != null || preinflatedItemCount == 0 || layoutId == 0 || adapter.getItemCount() != 0) {
+            return;
+        }
+        preinflater = new Preinflater();
+        Looper.myQueue().addIdleHandler(preinflater);
+    }
+
+    private void stopPreinflating() {
+        if (preinflater != null) {
+            Looper.myQueue().removeIdleHandler(preinflater);
+            preinflater = null;
+        }
+    }
+
     @Override
     public void initWithSearcher(@NonNull Searcher searcher) {
         this.searcher = searcher;
+        searcher.addResultsProcessor(highlightCache);
     }
 
     @Override
@@ -321,16 +824,59 @@ public class Hits extends RecyclerView implements AlgoliaWidget {
         return layoutId;
     }
 
+    /**
+     * Inflates an item view into the pool each time the main thread is idle,
+     * until the pool holds {@link #preinflatedItemCount} of them or hits are displayed.
+     */
+    private class Preinflater implements MessageQueue.IdleHandler {
+        /** The amount of item views inflated into a pool that was set by the user. */
+        private int inflatedCount;
+
+        @Override
+        public boolean queueIdle() {
+            final RecycledViewPool pool = getRecycledViewPool();
+            final int preinflatedCount = pool instanceof HitsViewPool ? ((HitsViewPool) pool).getPreinflatedCount() : inflatedCount;
+            if (preinflater != this || getWindowToken() == null || adapter.getItemCount() != 0 || preinflatedCount >= preinflatedItemCount) {
+                if (preinflater == this) {
+                    preinflater = null;
+                }
+                return false;
+            }
+            final RecyclerView.ViewHolder holder = adapter.createViewHolder(Hits.this, 0);
+            if (pool instanceof HitsViewPool) {
+                ((HitsViewPool) pool).putPreinflatedView(holder);
+            } else {
+                inflatedCount++;
+                pool.putRecycledView(holder);
+            }
+            return true;
+        }
+    }
+
     private class InfiniteScrollListener extends OnScrollListener {
         private int lastItemCount = 0; // Item count after last event
         private boolean currentlyLoading = true; // Are we waiting for new results?
 
+        private boolean prefetchEnabled;
+        private int lastPosition; // Last visible position at the previous event
+        private long lastScrollTime; // Time of the previous event
+        private float velocity; // Moving average of the scrolling speed, in items per ms
+
         void setCurrentlyLoading(boolean currentlyLoading) {
             this.currentlyLoading = currentlyLoading;
         }
 
+        void setPrefetchEnabled(boolean prefetchEnabled) {
+            this.prefetchEnabled = prefetchEnabled;
+            velocity = 0;
+            lastScrollTime = 0;
+        }
+
         @Override
         public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+            // Not while scrolling, as restoring a cached page notifies the adapter right away
+            removeCallbacks(windowUpdate);
+            post(windowUpdate);
             if (!searcher.shouldLoadMore()) {
                 return;
             }
@@ -359,42 +905,68 @@ public class Hits extends RecyclerView implements AlgoliaWidget {
                     // we are under the loading threshold, let's load more data
                     searcher.loadMore();
                     currentlyLoading = true;
+                } else if (prefetchEnabled) {
+                    prefetchIfNeeded(lastVisiblePosition, totalItemCount);
                 }
             }
         }
 
         /**
-         * Calculate the position of last visible item, notwithstanding the LayoutManager's class.
-         *
-         * @return the last visible item's position in the list.
+         * Measures the scrolling speed and prefetches the next page if the end of the list
+         * would be reached before a page is loaded.
          */
-        private int getLastVisibleItemPosition() {
-            int lastVisiblePosition = 0;
-            if (layoutManager instanceof StaggeredGridLayoutManager) {
-                int[] lastVisibleItemPositions = ((StaggeredGridLayoutManager) layoutManager).findLastVisibleItemPositions(null);
-                // last position = biggest value within the list of positions
-                int maxSize = lastVisibleItemPositions[0];
-                for (int lastVisibleItemPosition : lastVisibleItemPositions) {
-                    if (lastVisibleItemPosition > maxSize) {
-                        maxSize = lastVisibleItemPosition;
-                    }
-                }
-                lastVisiblePosition = maxSize;
-            } else if (layoutManager instanceof LinearLayoutManager) {
-                lastVisiblePosition = ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+        private void prefetchIfNeeded(int lastVisiblePosition, int totalItemCount) {
+            final long now = SystemClock.uptimeMillis();
+            if (lastScrollTime != 0 && now > lastScrollTime) {
+                final float currentVelocity = (float) (lastVisiblePosition - lastPosition) / (now - lastScrollTime);
+                velocity += (currentVelocity - velocity) / 4; // 1/4 weight for the latest measure
+            }
+            lastPosition = lastVisiblePosition;
+            lastScrollTime = now;
+            if (velocity <= 0) {
+                return;
+            }
+
+            long pageLoadTime = searcher.getAveragePageLoadTime();
+            if (pageLoadTime == 0) {
+                pageLoadTime = searcher.getAverageRoundTripTime() != 0 ? searcher.getAverageRoundTripTime() : DEFAULT_PAGE_LOAD_TIME;
+            }
+            final int remainingItems = totalItemCount - remainingItemsBeforeLoading - lastVisiblePosition;
+            if (remainingItems / velocity < pageLoadTime * PREFETCH_SAFETY_FACTOR) {
+                searcher.prefetch();
             }
-            return lastVisiblePosition;
         }
     }
 
     private static class HitsAdapter extends Adapter<HitsAdapter.ViewHolder> {
 
         @NonNull
-        private List<JSONObject> hits = new ArrayList<>();
+        private final HitPageStore store = new HitPageStore();
         private SparseArray<Drawable> placeholders = new SparseArray<>();
+        @NonNull
+        private final HighlightCache highlightCache;
 
-        HitsAdapter() {
-            this.hits = new ArrayList<>();
+        /**
+         * The stable id of each displayed hit, by {@link HitPageStore#getItemKey(JSONObject) key}, or by {@link RepeatedKey}
+         * for the next occurrences of a key. Only the keys of the displayed hits are kept.
+         */
+        private final Map<Object, Long> itemIds = new HashMap<>();
+        /** The amount of displayed hits having each key. */
+        private final Map<Object, Integer> keyCounts = new HashMap<>();
+        /** The stable id of the hit at each position. */
+        private final List<Long> positionIds = new ArrayList<>();
+        private long lastItemId;
+
+        @NonNull
+        private final HitsImagePreloader imagePreloader;
+        /** The item layout to inflate, or {@code 0} to use the one registered in {@link InstantSearch}. */
+        private final int layoutId;
+
+        HitsAdapter(@NonNull HighlightCache highlightCache, @NonNull HitsImagePreloader imagePreloader, int layoutId) {
+            this.highlightCache = highlightCache;
+            this.imagePreloader = imagePreloader;
+            this.layoutId = layoutId;
+            setHasStableIds(true);
         }
 
         void clear() {
@@ -402,128 +974,587 @@ public class Hits extends RecyclerView implements AlgoliaWidget {
         }
 
         void clear(boolean shouldNotify) {
+            final int previousItemCount = getItemCount();
+            store.clear();
+            itemIds.clear();
+            keyCounts.clear();
+            positionIds.clear();
             if (shouldNotify) {
-                final int previousItemCount = getItemCount();
-                hits.clear();
                 notifyItemRangeRemoved(0, previousItemCount);
-            } else {
-                hits.clear();
             }
         }
 
         public void add(JSONObject result) {
-            hits.add(result);
+            store.add(result);
+            positionIds.add(getItemId(itemIds, HitPageStore.getItemKey(result)));
+        }
+
+        /** Starts a new page of hits, to which the next {@link #add added} hits belong. */
+        void startPage() {
+            store.startPage();
+        }
+
+        /** Replaces the hits without notifying, keeping the ids of the hits that stay and forgetting the others'. */
+        void setHits(@NonNull List<JSONObject> newHits) {
+            final Map<Object, Long> previousIds = new HashMap<>(itemIds);
+            store.clear();
+            itemIds.clear();
+            keyCounts.clear();
+            positionIds.clear();
+            for (JSONObject hit : newHits) {
+                store.add(hit);
+                positionIds.add(getItemId(previousIds, HitPageStore.getItemKey(hit)));
+            }
+        }
+
+        /**
+         * Gets the id of a hit added at the end, reusing a previous one if any.
+         * A key appearing several times, e.g. a record in two pages, gets a distinct id for each occurrence.
+         *
+         * @param previousIds the ids to reuse, by key.
+         * @param key         the hit's {@link HitPageStore#getItemKey(JSONObject) key}.
+         * @return the hit's stable id.
+         */
+        private long getItemId(@NonNull Map<Object, Long> previousIds, @NonNull Object key) {
+            if (key instanceof JSONObject) {
+                return ++lastItemId; // A hit without objectID: don't retain it once its page is evicted
+            }
+            final Integer count = keyCounts.get(key);
+            keyCounts.put(key, count == null ? 1 : count + 1);
+            final Object idKey = count == null ? key : new RepeatedKey(key, count);
+            Long itemId = previousIds.get(idKey);
+            if (itemId == null) {
+                itemId = ++lastItemId;
+            }
+            itemIds.put(idKey, itemId);
+            return itemId;
+        }
+
+        /**
+         * Gets every hit.
+         *
+         * @return the hits, or {@code null} if some were evicted.
+         */
+        @Nullable
+        List<JSONObject> getHits() {
+            return store.getHits();
+        }
+
+        @NonNull
+        HitPageStore getStore() {
+            return store;
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return positionIds.get(position);
         }
 
         JSONObject getItemAt(int position) {
-            return hits.get(position);
+            return store.get(position);
         }
 
         @NonNull
         @Override
         public ViewHolder onCreateViewHolder(@NonNull final ViewGroup parent, int viewType) {
             ViewDataBinding binding = DataBindingUtil.inflate(
-                    LayoutInflater.from(parent.getContext()), InstantSearch.getItemLayoutId(), parent, false);
+                    LayoutInflater.from(parent.getContext()), layoutId != 0 ? layoutId : InstantSearch.getItemLayoutId(), parent, false);
             binding.executePendingBindings();
             return new ViewHolder(binding.getRoot());
         }
 
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            final Set<View> mappedViews = holder.viewMap.keySet();
-            final List<AlgoliaHitView> hitViews = LayoutViews.findByClass((ViewGroup) holder.itemView, AlgoliaHitView.class);
-            final JSONObject hit = hits.get(position);
+            final JSONObject hit = store.get(position);
+            for (Binder binder : holder.binders) {
+                binder.bind(hit, this);
+            }
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+            for (Object payload : payloads) {
+                if (payload != HitsDiffCallback.PAYLOAD_HIGHLIGHT) {
+                    onBindViewHolder(holder, position);
+                    return;
+                }
+            }
+            if (payloads.isEmpty()) {
+                onBindViewHolder(holder, position);
+                return;
+            }
+            // Only the highlighting changed, the rest of the record is already displayed
+            final JSONObject hit = store.get(position);
+            for (Binder binder : holder.binders) {
+                if (binder.isHighlighted()) {
+                    binder.bind(hit, this);
+                }
+            }
+        }
+
+        @Override
+        public void onViewRecycled(@NonNull ViewHolder holder) {
+            for (Binder binder : holder.binders) {
+                binder.unbind();
+            }
+        }
+
+        private static float getFloatValue(String attributeValue) {
+            return attributeValue != null ? Float.parseFloat(attributeValue) : 0;
+        }
+
+        @Override
+        public int getItemCount() {
+            return store.size();
+        }
+
+        private Activity getActivity(View view) {
+            Context context = view.getContext();
+            while (context instanceof ContextWrapper) {
+                if (context instanceof Activity) {
+                    return (Activity) context;
+                }
+                context = ((ContextWrapper) context).getBaseContext();
+            }
+            Log.e("Algolia|Hits", "Error: Could not get activity from View.");
+            return null;
+        }
+
+        class ViewHolder extends RecyclerView.ViewHolder {
+            /** The binding plan of this holder's views, compiled once when it is created. */
+            @NonNull final Binder[] binders;
+
+            ViewHolder(@NonNull View itemView) {
+                super(itemView);
+                binders = compileBinders(itemView);
+            }
+        }
 
-            // For every AlgoliaHitView that is not bound, trigger onResults
-            for (AlgoliaHitView hitView : hitViews) {
+        /**
+         * Compiles the binding plan of an item: one typed binder per bound view, after the binders of the unbound {@link AlgoliaHitView AlgoliaHitViews}.
+         *
+         * @param itemView the item's root view.
+         * @return the binders to run in order for each hit.
+         */
+        @NonNull
+        private Binder[] compileBinders(@NonNull View itemView) {
+            final List<Binder> binders = new ArrayList<>();
+            final SparseArray<String> attributes = BindingHelper.getBindings();
+            final Map<View, String> boundViews = new LinkedHashMap<>();
+            for (int i = 0; i < attributes.size(); i++) {
+                final View view = itemView.findViewById(attributes.keyAt(i));
+                if (view != null) {
+                    boundViews.put(view, attributes.valueAt(i));
+                }
+            }
+
+            // Every AlgoliaHitView that is not bound receives the whole hit
+            for (AlgoliaHitView hitView : LayoutViews.findByClass((ViewGroup) itemView, AlgoliaHitView.class)) {
                 //noinspection SuspiciousMethodCalls: With LayoutViews, we are sure to only find Views
-                if (mappedViews.contains(hitView)) {
-                    continue;
+                if (!boundViews.containsKey(hitView)) {
+                    binders.add(new HitViewBinder(hitView));
                 }
-                hitView.onUpdateView(hit);
             }
 
-            // For every view we have bound, if we can handle its class let's send them the hit
-            for (Map.Entry<View, String> entry : holder.viewMap.entrySet()) {
+            // Every bound view gets a binder for its class
+            for (Map.Entry<View, String> entry : boundViews.entrySet()) {
                 final View view = entry.getKey();
-                final String attributeName = entry.getValue();
-                final String attributeValue = JSONUtils.getStringFromJSONPath(hit, attributeName);
+                final AttributePath path = AttributePath.compile(entry.getValue());
                 if (view instanceof AlgoliaHitView) {
-                    ((AlgoliaHitView) view).onUpdateView(hit);
+                    binders.add(new HitViewBinder((AlgoliaHitView) view));
                 } else if (view instanceof EditText) {
-                    ((EditText) view).setHint(getHighlightedAttribute(hit, view, attributeName, attributeValue));
+                    binders.add(new TextBinder((TextView) view, path, entry.getValue(), true));
                 } else if (view instanceof RatingBar) {
-                    ((RatingBar) view).setRating(getFloatValue(attributeValue));
+                    binders.add(new RatingBinder((RatingBar) view, path));
                 } else if (view instanceof ProgressBar) {
-                    ((ProgressBar) view).setProgress(Math.round(getFloatValue(attributeValue)));
+                    binders.add(new ProgressBinder((ProgressBar) view, path));
                 } else if (view instanceof TextView) {
-                    ((TextView) view).setText(getHighlightedAttribute(hit, view, attributeName, attributeValue));
+                    binders.add(new TextBinder((TextView) view, path, entry.getValue(), false));
                 } else if (view instanceof ImageView) {
                     final Activity activity = getActivity(view);
-                    if (activity == null || Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1 && activity.isDestroyed()) {
-                        continue;
+                    if (activity != null) {
+                        binders.add(new ImageBinder((ImageView) view, path, ImageAspectRatio.compile(view.getId()), activity, getPlaceholder((ImageView) view)));
                     }
-
-                    final ImageView imageView = (ImageView) view;
-                    final int viewId = imageView.getId();
-                    Drawable placeholder = placeholders.get(viewId);
-                    if (placeholder == null) {
-                        placeholder = imageView.getDrawable();
-                        placeholders.put(viewId, placeholder);
-                    }
-                    Glide.with(activity).load(attributeValue).fitCenter().placeholder(placeholder).into(imageView);
                 } else {
                     throw new IllegalStateException(String.format(Errors.ADAPTER_UNKNOWN_VIEW, view.getClass().getCanonicalName()));
                 }
             }
+            return binders.toArray(new Binder[binders.size()]);
         }
 
-        private float getFloatValue(String attributeValue) {
-            return attributeValue != null ? Float.parseFloat(attributeValue) : 0;
+        /** Gets the placeholder of an ImageView, which is its initial drawable shared by every view with its id. */
+        private Drawable getPlaceholder(@NonNull ImageView imageView) {
+            final int viewId = imageView.getId();
+            Drawable placeholder = placeholders.get(viewId);
+            if (placeholder == null) {
+                placeholder = imageView.getDrawable();
+                placeholders.put(viewId, placeholder);
+            }
+            return placeholder;
         }
 
-        private
-        @Nullable
-        Spannable getHighlightedAttribute(@NonNull JSONObject hit, @NonNull View view, @NonNull String attributeName, @Nullable String attributeValue) {
-            Spannable attributeText;
-            if (RenderingHelper.getDefault().shouldHighlight(attributeName)) {
-                final int highlightColor = RenderingHelper.getDefault().getHighlightColor(attributeName);
-                attributeText = Highlighter.getDefault().renderHighlightColor(hit, attributeName, highlightColor, view.getContext());
-            } else {
-                attributeText = attributeValue != null ? new SpannableString(attributeValue) : null;
+        /** A binding operation compiled for one view. As holders can be shared by several widgets, it binds with the current adapter's helpers. */
+        private abstract static class Binder {
+            abstract void bind(@NonNull JSONObject hit, @NonNull HitsAdapter adapter);
+
+            /** Releases what the view holds while it is waiting to be bound again. */
+            void unbind() {
+            }
+
+            /** Checks if this binder displays highlighting, which may change while the record does not. */
+            boolean isHighlighted() {
+                return false;
+            }
+        }
+
+        private static class HitViewBinder extends Binder {
+            @NonNull private final AlgoliaHitView view;
+
+            HitViewBinder(@NonNull AlgoliaHitView view) {
+                this.view = view;
+            }
+
+            @Override
+            void bind(@NonNull JSONObject hit, @NonNull HitsAdapter adapter) {
+                view.onUpdateView(hit);
+            }
+
+            @Override
+            boolean isHighlighted() {
+                return true; // The view may display any part of the hit
+            }
+        }
+
+        private static class TextBinder extends Binder {
+            @NonNull private final TextView view;
+            @NonNull private final AttributePath path;
+            @NonNull private final String attributeName;
+            private final boolean isHint;
+            private final boolean isHighlighted;
+
+            TextBinder(@NonNull TextView view, @NonNull AttributePath path, @NonNull String attributeName, boolean isHint) {
+                this.view = view;
+                this.path = path;
+                this.attributeName = attributeName;
+                this.isHint = isHint;
+                this.isHighlighted = RenderingHelper.getDefault().shouldHighlight(attributeName);
+            }
+
+            @Override
+            void bind(@NonNull JSONObject hit, @NonNull HitsAdapter adapter) {
+                final Spannable text;
+                if (isHighlighted) {
+                    text = adapter.highlightCache.get(hit, attributeName);
+                } else {
+                    final String attributeValue = path.getString(hit);
+                    text = attributeValue != null ? new SpannableString(attributeValue) : null;
+                }
+                if (isHint) {
+                    view.setHint(text);
+                } else {
+                    view.setText(text);
+                }
+            }
+
+            @Override
+            boolean isHighlighted() {
+                return isHighlighted;
+            }
+        }
+
+        private static class RatingBinder extends Binder {
+            @NonNull private final RatingBar view;
+            @NonNull private final AttributePath path;
+
+            RatingBinder(@NonNull RatingBar view, @NonNull AttributePath path) {
+                this.view = view;
+                this.path = path;
+            }
+
+            @Override
+            void bind(@NonNull JSONObject hit, @NonNull HitsAdapter adapter) {
+                view.setRating(getFloatValue(path.getString(hit)));
+            }
+        }
+
+        private static class ProgressBinder extends Binder {
+            @NonNull private final ProgressBar view;
+            @NonNull private final AttributePath path;
+
+            ProgressBinder(@NonNull ProgressBar view, @NonNull AttributePath path) {
+                this.view = view;
+                this.path = path;
+            }
+
+            @Override
+            void bind(@NonNull JSONObject hit, @NonNull HitsAdapter adapter) {
+                view.setProgress(Math.round(getFloatValue(path.getString(hit))));
+            }
+        }
+
+        /**
+         * Binds an image, reserving its size beforehand if the binding declares its aspect ratio:
+         * the flexible dimension of the view is then set from the other one, so that its row is laid out once.
+         */
+        private static class ImageBinder extends Binder implements View.OnLayoutChangeListener {
+            @NonNull private final ImageView view;
+            @NonNull private final AttributePath path;
+            @Nullable private final ImageAspectRatio aspectRatio;
+            @NonNull private final Activity activity;
+            @Nullable private final Drawable placeholder;
+            /** The view's dimensions in its layout, restored for the hits without aspect ratio. */
+            private final int layoutWidth;
+            private final int layoutHeight;
+            /** The aspect ratio to apply once the view's width is known, if it was not when bound. */
+            private float pendingRatio;
+            /** The height computed from the {@link #pendingRatio}, applied after the layout pass unless the view is bound again. */
+            private int pendingHeight;
+            /** The preloader of the adapter that last bound this view, which records its size after each layout pass. */
+            @Nullable private HitsImagePreloader imagePreloader;
+
+            ImageBinder(@NonNull ImageView view, @NonNull AttributePath path, @Nullable ImageAspectRatio aspectRatio,
+                        @NonNull Activity activity, @Nullable Drawable placeholder) {
+                this.view = view;
+                this.path = path;
+                this.aspectRatio = aspectRatio;
+                this.activity = activity;
+                this.placeholder = placeholder;
+                final ViewGroup.LayoutParams params = view.getLayoutParams();
+                layoutWidth = params != null ? params.width : ViewGroup.LayoutParams.WRAP_CONTENT;
+                layoutHeight = params != null ? params.height : ViewGroup.LayoutParams.WRAP_CONTENT;
+                view.addOnLayoutChangeListener(this);
+            }
+
+            @Override
+            void bind(@NonNull JSONObject hit, @NonNull HitsAdapter adapter) {
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1 && activity.isDestroyed()) {
+                    return;
+                }
+                imagePreloader = adapter.imagePreloader;
+                if (aspectRatio != null) {
+                    reserveSize(aspectRatio.get(hit), imagePreloader.getImageWidth(view.getId()));
+                }
+                // The view's current size may be the previous hit's: it is recorded after the layout pass instead
+                imagePreloader.onImageBound(view.getId(), path, aspectRatio, activity, layoutWidth, layoutHeight);
+                final String url = adapter.imagePreloader.getImageUrl(hit, view.getId());
+                Glide.with(activity).load(url).fitCenter().placeholder(placeholder).into(view);
+            }
+
+            @Override
+            void unbind() {
+                Glide.clear(view); // Lets the bitmap go to the memory cache, where it can be evicted or reused
+            }
+
+            /**
+             * Sets the view's flexible dimension for an image of a given aspect ratio.
+             *
+             * @param ratio      the image's aspect ratio, or {@code 0} to restore the layout's dimensions.
+             * @param knownWidth the last known width of this view, or {@code 0}.
+             */
+            private void reserveSize(float ratio, int knownWidth) {
+                pendingRatio = 0;
+                pendingHeight = 0;
+                if (ratio <= 0) {
+                    setSize(layoutWidth, layoutHeight);
+                } else if (layoutHeight <= 0) { // The height follows the width
+                    final int width = layoutWidth > 0 ? layoutWidth : view.getWidth() > 0 ? view.getWidth() : knownWidth;
+                    if (width > 0) {
+                        setSize(layoutWidth, Math.round(width / ratio));
+                    } else {
+                        setSize(layoutWidth, layoutHeight);
+                        pendingRatio = ratio; // Applied once the view is laid out
+                    }
+                } else if (layoutWidth <= 0) { // The width follows the height
+                    setSize(Math.round(layoutHeight * ratio), layoutHeight);
+                }
+            }
+
+            private void setSize(int width, int height) {
+                final ViewGroup.LayoutParams params = view.getLayoutParams();
+                if (params != null && (params.width != width || params.height != height)) {
+                    params.width = width;
+                    params.height = height;
+                    view.setLayoutParams(params);
+                }
+            }
+
+            @Override
+            public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
+                final int width = right - left;
+                if (imagePreloader != null) {
+                    // A height set for the hit's aspect ratio does not stand for the other hits
+                    final ViewGroup.LayoutParams params = view.getLayoutParams();
+                    final boolean hasLayoutSize = params == null || (params.width == layoutWidth && params.height == layoutHeight);
+                    imagePreloader.onImageLaidOut(view.getId(), width, hasLayoutSize ? bottom - top : 0);
+                }
+                if (pendingRatio <= 0 || width <= 0) {
+                    return;
+                }
+                pendingHeight = Math.round(width / pendingRatio);
+                pendingRatio = 0;
+                view.post(new Runnable() { // Not during the layout pass
+                    @Override
+                    public void run() {
+                        if (pendingHeight > 0) {
+                            setSize(layoutWidth, pendingHeight);
+                            pendingHeight = 0;
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    /** Identifies the n-th occurrence of a key among the displayed hits, n being at least 1. */
+    private static final class RepeatedKey {
+        @NonNull final Object key;
+        final int occurrence;
+
+        RepeatedKey(@NonNull Object key, int occurrence) {
+            this.key = key;
+            this.occurrence = occurrence;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
             }
-            return attributeText;
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final RepeatedKey that = (RepeatedKey) o;
+            return occurrence == that.occurrence && key.equals(that.key);
         }
 
         @Override
-        public int getItemCount() {
-            return hits.size();
+        public int hashCode() {
+            return 31 * key.hashCode() + occurrence;
         }
+    }
 
-        private Activity getActivity(View view) {
-            Context context = view.getContext();
-            while (context instanceof ContextWrapper) {
-                if (context instanceof Activity) {
-                    return (Activity) context;
+    /** Compares two lists of hits, identifying them by {@link HitPageStore#getItemKey(JSONObject) key}. */
+    private static class HitsDiffCallback extends DiffUtil.Callback {
+        /** The payload of a change where only the highlighting of the record changed. */
+        static final Object PAYLOAD_HIGHLIGHT = new Object();
+        private static final String[] HIGHLIGHT_ATTRIBUTES = {"_highlightResult", "_snippetResult"};
+
+        @NonNull private final List<JSONObject> oldHits;
+        @NonNull private final List<JSONObject> newHits;
+
+        HitsDiffCallback(@NonNull List<JSONObject> oldHits, @NonNull List<JSONObject> newHits) {
+            this.oldHits = oldHits;
+            this.newHits = newHits;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldHits.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newHits.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return HitPageStore.getItemKey(oldHits.get(oldItemPosition)).equals(HitPageStore.getItemKey(newHits.get(newItemPosition)));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            final JSONObject oldHit = oldHits.get(oldItemPosition);
+            final JSONObject newHit = newHits.get(newItemPosition);
+            if (oldHit == newHit) {
+                return true;
+            }
+            if (!recordsEqual(oldHit, newHit)) {
+                return false;
+            }
+            for (String attribute : HIGHLIGHT_ATTRIBUTES) {
+                if (!valuesEqual(oldHit.opt(attribute), newHit.opt(attribute))) {
+                    return false;
                 }
-                context = ((ContextWrapper) context).getBaseContext();
             }
-            Log.e("Algolia|Hits", "Error: Could not get activity from View.");
-            return null;
+            return true;
         }
 
-        class ViewHolder extends RecyclerView.ViewHolder {
-            final Map<View, String> viewMap = new HashMap<>();
+        @Nullable
+        @Override
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            return recordsEqual(oldHits.get(oldItemPosition), newHits.get(newItemPosition)) ? PAYLOAD_HIGHLIGHT : null;
+        }
 
-            ViewHolder(@NonNull View itemView) {
-                super(itemView);
-                // Store every annotated view with its attribute name
-                final SparseArray<String> attributes = BindingHelper.getBindings();
-                for (int i = 0; i < attributes.size(); i++) {
-                    viewMap.put(itemView.findViewById(attributes.keyAt(i)), attributes.valueAt(i));
+        /** Compares two hits, ignoring their highlighting. */
+        private static boolean recordsEqual(@NonNull JSONObject oldHit, @NonNull JSONObject newHit) {
+            int highlightCount = 0;
+            final Iterator<String> keys = oldHit.keys();
+            while (keys.hasNext()) {
+                final String key = keys.next();
+                if (isHighlightAttribute(key)) {
+                    highlightCount++;
+                } else if (!valuesEqual(oldHit.opt(key), newHit.opt(key))) {
+                    return false;
+                }
+            }
+            int newHighlightCount = 0;
+            for (String attribute : HIGHLIGHT_ATTRIBUTES) {
+                if (newHit.has(attribute)) {
+                    newHighlightCount++;
                 }
             }
+            return oldHit.length() - highlightCount == newHit.length() - newHighlightCount;
+        }
 
+        private static boolean isHighlightAttribute(@NonNull String key) {
+            for (String attribute : HIGHLIGHT_ATTRIBUTES) {
+                if (attribute.equals(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean valuesEqual(@Nullable Object oldValue, @Nullable Object newValue) {
+            if (oldValue == newValue) {
+                return true;
+            }
+            if (oldValue == null || newValue == null) {
+                return false;
+            }
+            if (oldValue instanceof JSONObject && newValue instanceof JSONObject) {
+                final JSONObject oldObject = (JSONObject) oldValue;
+                final JSONObject newObject = (JSONObject) newValue;
+                if (oldObject.length() != newObject.length()) {
+                    return false;
+                }
+                final Iterator<String> keys = oldObject.keys();
+                while (keys.hasNext()) {
+                    final String key = keys.next();
+                    if (!valuesEqual(oldObject.opt(key), newObject.opt(key))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (oldValue instanceof JSONArray && newValue instanceof JSONArray) {
+                final JSONArray oldArray = (JSONArray) oldValue;
+                final JSONArray newArray = (JSONArray) newValue;
+                if (oldArray.length() != newArray.length()) {
+                    return false;
+                }
+                for (int i = 0; i < oldArray.length(); i++) {
+                    if (!valuesEqual(oldArray.opt(i), newArray.opt(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (oldValue instanceof Number && newValue instanceof Number) {
+                return oldValue.toString().equals(newValue.toString());
+            }
+            return oldValue.equals(newValue);
         }
     }
 }
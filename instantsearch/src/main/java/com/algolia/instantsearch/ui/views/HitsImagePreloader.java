@@ -0,0 +1,280 @@
+package com.algolia.instantsearch.ui.views;
+
+import android.app.Activity;
+import android.os.Build;
+import android.support.annotation.IdRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+
+import com.algolia.instantsearch.utils.AttributePath;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.request.target.Target;
+
+import org.json.JSONObject;
+
+import java.util.LinkedList;
+
+/**
+ * Preloads the images of the hits about to be scrolled into view, so that they are already in Glide's memory cache when their row is bound.
+ * <p>
+ * Images are requested for the hits following the visible ones in the scrolling direction, with the same url, transformation
+ * and size as the ImageView displaying them: the urls of both are resolved by {@link #getImageUrl}. Pending requests are cancelled
+ * when the hits are replaced, and no more hits are preloaded than the {@link #setMemoryBudget memory budget} allows.
+ * This class is not thread-safe, it should only be used on the main thread.
+ */
+final class HitsImagePreloader extends RecyclerView.OnScrollListener {
+    @NonNull
+    private final Hits hits;
+    /** The amount of hits to preload ahead of the visible ones. */
+    private int preloadedItemCount;
+    /** The maximum amount of bytes the images of the visible and preloaded hits should take, or {@code 0} for no limit. */
+    private int memoryBudget;
+    @Nullable
+    private ImageUrlRewriter urlRewriter;
+
+    /** The image displayed by each bound ImageView, by view id. */
+    private final SparseArray<ImageSpec> images = new SparseArray<>();
+    /** The preload requests, oldest first. */
+    private final LinkedList<Target<?>> targets = new LinkedList<>();
+
+    private boolean isScrollingForward = true;
+    /**
+     * How far hits were preloaded in the current scrolling direction: the position after the last preloaded one when scrolling forward,
+     * the first preloaded one when scrolling backward. {@code -1} if none was preloaded.
+     */
+    private int preloadedLimit = -1;
+
+    /** What is needed to load an image as a bound ImageView would. */
+    private static class ImageSpec {
+        @NonNull final AttributePath path;
+        @Nullable final ImageAspectRatio aspectRatio;
+        @NonNull final Activity activity;
+        int width;
+        int height;
+
+        ImageSpec(@NonNull AttributePath path, @Nullable ImageAspectRatio aspectRatio, @NonNull Activity activity) {
+            this.path = path;
+            this.aspectRatio = aspectRatio;
+            this.activity = activity;
+        }
+
+        /** Gets the height of a hit's image: the one its aspect ratio gives for this width if any, else the measured one. */
+        int getHeight(@NonNull JSONObject hit) {
+            final float ratio = aspectRatio != null ? aspectRatio.get(hit) : 0;
+            return ratio > 0 ? Math.round(width / ratio) : height;
+        }
+    }
+
+    HitsImagePreloader(@NonNull Hits hits, int preloadedItemCount, int memoryBudget) {
+        this.hits = hits;
+        this.preloadedItemCount = preloadedItemCount;
+        this.memoryBudget = memoryBudget;
+    }
+
+    int getPreloadedItemCount() {
+        return preloadedItemCount;
+    }
+
+    void setPreloadedItemCount(int preloadedItemCount) {
+        this.preloadedItemCount = preloadedItemCount;
+        cancel();
+    }
+
+    int getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    void setMemoryBudget(int memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        cancel();
+    }
+
+    @Nullable
+    ImageUrlRewriter getUrlRewriter() {
+        return urlRewriter;
+    }
+
+    void setUrlRewriter(@Nullable ImageUrlRewriter urlRewriter) {
+        this.urlRewriter = urlRewriter;
+        cancel();
+    }
+
+    /**
+     * Records the image displayed by an ImageView. Until the view is {@link #onImageLaidOut laid out},
+     * its size is the one of its layout, if it is exact.
+     *
+     * @param viewId       the ImageView's id.
+     * @param path         the attribute holding the image's url.
+     * @param aspectRatio  the aspect ratio of the image, if its binding declares one.
+     * @param activity     the Activity to load images with.
+     * @param layoutWidth  the width declared in the view's layout, before any aspect ratio is applied.
+     * @param layoutHeight the height declared in the view's layout, before any aspect ratio is applied.
+     */
+    void onImageBound(@IdRes int viewId, @NonNull AttributePath path, @Nullable ImageAspectRatio aspectRatio, @NonNull Activity activity,
+                      int layoutWidth, int layoutHeight) {
+        ImageSpec image = images.get(viewId);
+        if (image == null) {
+            image = new ImageSpec(path, aspectRatio, activity);
+            images.put(viewId, image);
+        }
+        if (image.width == 0 && layoutWidth > 0 && layoutHeight > 0) {
+            image.width = layoutWidth;
+            image.height = layoutHeight;
+        }
+    }
+
+    /**
+     * Records the size of a bound ImageView after a layout pass.
+     *
+     * @param viewId the ImageView's id.
+     * @param width  its measured width.
+     * @param height its measured height, or {@code 0} if it was sized by the aspect ratio of its hit: it then does not stand for other hits.
+     */
+    void onImageLaidOut(@IdRes int viewId, int width, int height) {
+        final ImageSpec image = images.get(viewId);
+        if (image == null || width <= 0) {
+            return;
+        }
+        image.width = width;
+        if (height > 0) {
+            image.height = height;
+        }
+    }
+
+    /**
+     * Gets the last known width of an ImageView.
+     *
+     * @param viewId the id of an ImageView {@link #onImageBound bound} beforehand.
+     * @return its width in pixels, or {@code 0} if it is not known yet.
+     */
+    int getImageWidth(@IdRes int viewId) {
+        final ImageSpec image = images.get(viewId);
+        return image != null ? image.width : 0;
+    }
+
+    /**
+     * Gets the url to load a hit's image from into a bound ImageView, rewritten for its size by the {@link ImageUrlRewriter} if any.
+     *
+     * @param hit    the hit to display.
+     * @param viewId the id of an ImageView {@link #onImageBound bound} beforehand.
+     * @return the url to load, or {@code null} if there is none.
+     */
+    @Nullable
+    String getImageUrl(@NonNull JSONObject hit, @IdRes int viewId) {
+        final ImageSpec image = images.get(viewId);
+        return image != null ? getImageUrl(hit, image) : null;
+    }
+
+    @Nullable
+    private String getImageUrl(@NonNull JSONObject hit, @NonNull ImageSpec image) {
+        final String url = image.path.getString(hit);
+        if (url == null || urlRewriter == null) {
+            return url;
+        }
+        return urlRewriter.rewrite(url, image.width, image.getHeight(hit), hits.getResources().getDisplayMetrics().density);
+    }
+
+    @Override
+    public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        // A layout without scrolling keeps the current direction
+        if (dx != 0 || dy != 0) {
+            final boolean isForward = dy > 0 || (dy == 0 && dx > 0);
+            if (isForward != isScrollingForward) {
+                isScrollingForward = isForward;
+                preloadedLimit = -1;
+            }
+        }
+        preload();
+    }
+
+    /** Cancels the pending preload requests, for instance because the hits they were for are replaced. */
+    void cancel() {
+        for (Target<?> target : targets) {
+            Glide.clear(target);
+        }
+        targets.clear();
+        preloadedLimit = -1;
+    }
+
+    private void preload() {
+        if (preloadedItemCount == 0 || images.size() == 0) {
+            return;
+        }
+        final int firstVisiblePosition = hits.getFirstVisibleItemPosition();
+        if (firstVisiblePosition == RecyclerView.NO_POSITION) {
+            return;
+        }
+        final int lastVisiblePosition = hits.getLastVisibleItemPosition();
+        final int count = getAffordableItemCount(lastVisiblePosition - firstVisiblePosition + 1);
+        if (count == 0) {
+            return;
+        }
+        final int itemCount = hits.getAdapter().getItemCount();
+        int start;
+        int end;
+        if (isScrollingForward) {
+            start = lastVisiblePosition + 1;
+            end = Math.min(itemCount, start + count);
+            if (preloadedLimit != -1 && start < preloadedLimit) {
+                start = preloadedLimit; // The beginning of the range was already preloaded
+            }
+        } else {
+            end = firstVisiblePosition;
+            start = Math.max(0, end - count);
+            if (preloadedLimit != -1 && end > preloadedLimit) {
+                end = preloadedLimit;
+            }
+        }
+        if (start >= end) {
+            return;
+        }
+        preloadedLimit = isScrollingForward ? end : start;
+
+        for (int position = start; position < end; position++) {
+            preload(hits.get(position), count);
+        }
+    }
+
+    /**
+     * Gets how many hits can be preloaded without exceeding the memory budget, estimating each image's size in memory
+     * as a bitmap of its view's size with 4 bytes per pixel.
+     *
+     * @param visibleCount the amount of visible hits, whose images are displayed.
+     * @return the amount of hits to preload.
+     */
+    private int getAffordableItemCount(int visibleCount) {
+        if (memoryBudget == 0) {
+            return preloadedItemCount;
+        }
+        long itemBytes = 0;
+        for (int i = 0; i < images.size(); i++) {
+            final ImageSpec image = images.valueAt(i);
+            itemBytes += 4L * image.width * image.height; // The last measured height stands for the one of any hit
+        }
+        if (itemBytes == 0) {
+            return preloadedItemCount;
+        }
+        return (int) Math.max(0, Math.min(preloadedItemCount, memoryBudget / itemBytes - visibleCount));
+    }
+
+    private void preload(@NonNull JSONObject hit, int count) {
+        for (int i = 0; i < images.size(); i++) {
+            final ImageSpec image = images.valueAt(i);
+            if (image.width == 0 || (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1 && image.activity.isDestroyed())) {
+                continue;
+            }
+            final String url = getImageUrl(hit, image);
+            final int height = image.getHeight(hit);
+            if (url == null || height == 0) {
+                continue; // No image, or the hit's page is evicted
+            }
+            // Same request as the bound ImageView's, so that it is stored under the same key
+            targets.add(Glide.with(image.activity).load(url).fitCenter().preload(image.width, height));
+            if (targets.size() > count * images.size()) {
+                Glide.clear(targets.removeFirst());
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.algolia.instantsearch.ui.views;
+
+import android.content.Context;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A pool of item views that can be shared by the {@link Hits} widgets of a same Context using a same item layout,
+ * for instance across the tabs of an Activity.
+ * <p>
+ * Pools are only kept while a widget uses them: as their views reference their Context, they are never shared across Activities.
+ * This class is not thread-safe, it should only be used on the main thread.
+ */
+final class HitsViewPool extends RecyclerView.RecycledViewPool {
+    private static final Map<Context, SparseArray<WeakReference<HitsViewPool>>> sharedPools = new WeakHashMap<>();
+
+    /** The amount of item views inflated in advance into this pool. */
+    private int preinflatedCount;
+
+    /**
+     * Gets the pool shared by the widgets of a Context using a given item layout, creating it if there is none.
+     *
+     * @param context  the widget's Context.
+     * @param layoutId the widget's item layout.
+     * @return the shared pool.
+     */
+    @NonNull
+    static HitsViewPool getShared(@NonNull Context context, @LayoutRes int layoutId) {
+        SparseArray<WeakReference<HitsViewPool>> contextPools = sharedPools.get(context);
+        if (contextPools == null) {
+            contextPools = new SparseArray<>();
+            sharedPools.put(context, contextPools);
+        }
+        final WeakReference<HitsViewPool> reference = contextPools.get(layoutId);
+        HitsViewPool pool = reference != null ? reference.get() : null;
+        if (pool == null) {
+            pool = new HitsViewPool();
+            contextPools.put(layoutId, new WeakReference<>(pool));
+        }
+        return pool;
+    }
+
+    int getPreinflatedCount() {
+        return preinflatedCount;
+    }
+
+    void putPreinflatedView(@NonNull RecyclerView.ViewHolder holder) {
+        preinflatedCount++;
+        putRecycledView(holder);
+    }
+}
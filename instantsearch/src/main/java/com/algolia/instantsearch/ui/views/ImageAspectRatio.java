@@ -0,0 +1,93 @@
+package com.algolia.instantsearch.ui.views;
+
+import android.support.annotation.IdRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.algolia.instantsearch.ui.databinding.BindingHelper;
+import com.algolia.instantsearch.utils.AttributePath;
+
+import org.json.JSONObject;
+
+/**
+ * The aspect ratio of the image bound to an ImageView, read from the hit's attributes declared in its binding:
+ * either an aspect ratio attribute ({@code 1.5} or {@code "3:2"}), or width and height attributes.
+ */
+final class ImageAspectRatio {
+    @Nullable
+    private final AttributePath ratioPath;
+    @Nullable
+    private final AttributePath widthPath;
+    @Nullable
+    private final AttributePath heightPath;
+
+    private ImageAspectRatio(@Nullable AttributePath ratioPath, @Nullable AttributePath widthPath, @Nullable AttributePath heightPath) {
+        this.ratioPath = ratioPath;
+        this.widthPath = widthPath;
+        this.heightPath = heightPath;
+    }
+
+    /**
+     * Compiles the aspect ratio bound to an ImageView.
+     *
+     * @param viewId the ImageView's id.
+     * @return the ImageAspectRatio, or {@code null} if the view's binding declares none.
+     */
+    @Nullable
+    static ImageAspectRatio compile(@IdRes int viewId) {
+        final String ratioAttribute = BindingHelper.getAspectRatioAttribute(viewId);
+        if (ratioAttribute != null) {
+            return new ImageAspectRatio(AttributePath.compile(ratioAttribute), null, null);
+        }
+        final String[] sizeAttributes = BindingHelper.getSizeAttributes(viewId);
+        if (sizeAttributes != null) {
+            return new ImageAspectRatio(null, AttributePath.compile(sizeAttributes[0]), AttributePath.compile(sizeAttributes[1]));
+        }
+        return null;
+    }
+
+    /**
+     * Gets the aspect ratio of a hit's image.
+     *
+     * @param hit the hit to read.
+     * @return the image's width divided by its height, or {@code 0} if the hit does not have valid attributes.
+     */
+    float get(@NonNull JSONObject hit) {
+        if (ratioPath != null) {
+            return parseRatio(ratioPath.get(hit));
+        }
+        //noinspection ConstantConditions: both paths are set without a ratio path
+        final float width = parseFloat(widthPath.get(hit));
+        //noinspection ConstantConditions
+        final float height = parseFloat(heightPath.get(hit));
+        return width > 0 && height > 0 ? width / height : 0;
+    }
+
+    private static float parseRatio(@Nullable Object value) {
+        if (value instanceof String) {
+            final String ratio = (String) value;
+            final int separator = ratio.indexOf(':');
+            if (separator != -1) {
+                final float width = parseFloat(ratio.substring(0, separator).trim());
+                final float height = parseFloat(ratio.substring(separator + 1).trim());
+                return width > 0 && height > 0 ? width / height : 0;
+            }
+        }
+        final float ratio = parseFloat(value);
+        return ratio > 0 ? ratio : 0;
+    }
+
+    private static float parseFloat(@Nullable Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).floatValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Float.parseFloat((String) value);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.algolia.instantsearch.ui.views;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Lets you rewrite the url of the images displayed in {@link Hits}.
+ * <p>
+ * Given the size of the {@link android.widget.ImageView} displaying an image, it can request a rendition of the right size
+ * from an image service instead of downloading and downscaling the full-size image on the device.
+ */
+public interface ImageUrlRewriter {
+    /**
+     * Rewrites an image url for a given view size.
+     *
+     * @param url     the url found in the hit.
+     * @param width   the width of the ImageView in pixels, or {@code 0} if it is not known yet.
+     * @param height  the height of the ImageView in pixels, or {@code 0} if it is not known yet.
+     * @param density the screen's {@link android.util.DisplayMetrics#density density}, to convert pixels to density-independent pixels.
+     * @return the url to load the image from.
+     */
+    @NonNull
+    String rewrite(@NonNull String url, int width, int height, float density);
+}
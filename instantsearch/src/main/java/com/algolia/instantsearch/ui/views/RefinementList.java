@@ -32,7 +32,6 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Displays facet values for an attribute and lets the user filter the results using these values.
@@ -162,13 +161,15 @@ public class RefinementList extends ListView implements AlgoliaWidget {
         }
 
         // else build updated facet list
-        final Map<String, List<FacetValue>> facets = results.facets;
-        List<FacetValue> refinementFacets = facets.get(attribute);
+        List<FacetValue> refinementFacets = results.getFacetValues(attribute);
 
         // If we have new facetValues we should use them, and else set count=0 to old ones
         if (refinementFacets != null && refinementFacets.size() > 0) {
             adapter.clear(false);
-            adapter.addAll(refinementFacets);
+            // Results are shared with other listeners, copy the values as their counts may be reset later
+            for (FacetValue facetValue : refinementFacets) {
+                adapter.add(new FacetValue(facetValue.value, facetValue.count));
+            }
             adapter.sort(sortComparator);
         } else {
             adapter.resetFacetCounts();
@@ -0,0 +1,251 @@
+package com.algolia.instantsearch.utils;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An attribute path such as {@code a.b[0].c}, compiled once into an accessor walking {@link JSONObject JSONObjects} directly.
+ * <p>
+ * Paths made of attribute names (also written {@code ['name']}) and array indexes are compiled.
+ * Other JsonPath expressions (wildcards, deep scans, filters...) are evaluated with JsonPath, unless an application excludes this dependency.
+ */
+public final class AttributePath {
+    /** Maximum amount of compiled paths kept in memory. */
+    private static final int MAX_CACHED_PATHS = 256;
+    /** The compiled paths, least recently used first. Guarded by itself. */
+    private static final Map<String, AttributePath> cache = new LinkedHashMap<String, AttributePath>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AttributePath> eldest) {
+            return size() > MAX_CACHED_PATHS;
+        }
+    };
+
+    @NonNull
+    private final String path;
+    /** The steps to follow: a String for an attribute, an Integer for an array index. {@code null} if evaluated with JsonPath. */
+    @Nullable
+    private final Object[] steps;
+
+    private AttributePath(@NonNull String path, @Nullable Object[] steps) {
+        this.path = path;
+        this.steps = steps;
+    }
+
+    /**
+     * Compiles a path, or gets it from the cache if it was already compiled.
+     *
+     * @param path a path such as {@code a.b[0].c}.
+     * @return the compiled AttributePath.
+     * @throws IllegalArgumentException if the path is invalid.
+     */
+    @NonNull
+    public static AttributePath compile(@NonNull String path) {
+        synchronized (cache) {
+            final AttributePath attributePath = cache.get(path);
+            if (attributePath != null) {
+                return attributePath;
+            }
+        }
+        final AttributePath attributePath = new AttributePath(path, parse(path)); // Parsing twice a path on concurrent calls is harmless
+        synchronized (cache) {
+            cache.put(path, attributePath);
+        }
+        return attributePath;
+    }
+
+    /**
+     * Gets the value at this path.
+     *
+     * @param record a JSONObject to traverse.
+     * @return the value ({@link JSONObject}, {@link JSONArray}, String, Number or Boolean), or {@code null} if it was not found.
+     */
+    @Nullable
+    public Object get(@NonNull JSONObject record) {
+        if (steps == null) {
+            return JsonPathFallback.read(record, path);
+        }
+        Object current = record;
+        for (Object step : steps) {
+            if (step instanceof String && current instanceof JSONObject) {
+                current = ((JSONObject) current).opt((String) step);
+            } else if (step instanceof Integer && current instanceof JSONArray) {
+                final JSONArray array = (JSONArray) current;
+                final int index = (Integer) step;
+                current = array.opt(index < 0 ? array.length() + index : index);
+            } else {
+                return null;
+            }
+            if (current == null || current == JSONObject.NULL) {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Gets the value at this path as a String.
+     *
+     * @param record a JSONObject to traverse.
+     * @return the value's String representation, or {@code null} if it was not found.
+     */
+    @Nullable
+    public String getString(@NonNull JSONObject record) {
+        final Object value = get(record);
+        return value == null ? null : value.toString();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    /**
+     * Parses a path into its steps.
+     *
+     * @return the steps, or {@code null} if the path should be evaluated with JsonPath.
+     * @throws IllegalArgumentException if the path is invalid.
+     */
+    @Nullable
+    private static Object[] parse(@NonNull String path) {
+        final List<Object> steps = new ArrayList<>();
+        int i = 0;
+        final int length = path.length();
+        if (path.startsWith("$")) {
+            i = 1;
+            if (i < length && path.charAt(i) == '.') {
+                i++;
+            }
+        }
+        boolean expectsName = true;
+        while (i < length) {
+            final char c = path.charAt(i);
+            if (c == '[') {
+                final int end = path.indexOf(']', i);
+                if (end == -1) {
+                    throw new IllegalArgumentException("Unclosed bracket in path \"" + path + "\".");
+                }
+                final String content = path.substring(i + 1, end).trim();
+                if (content.length() >= 2 && (content.charAt(0) == '\'' || content.charAt(0) == '"')
+                        && content.charAt(content.length() - 1) == content.charAt(0)) {
+                    final String name = content.substring(1, content.length() - 1);
+                    if (name.indexOf('\'') != -1 || name.indexOf('"') != -1) {
+                        return null; // Union of names
+                    }
+                    steps.add(name);
+                } else if (isIndex(content)) {
+                    steps.add(Integer.valueOf(content));
+                } else if (content.equals("*") || content.indexOf(':') != -1 || content.indexOf(',') != -1 || content.startsWith("?")) {
+                    return null; // Wildcard, slice, union or filter
+                } else {
+                    throw new IllegalArgumentException("Invalid array index \"" + content + "\" in path \"" + path + "\".");
+                }
+                i = end + 1;
+                expectsName = false;
+            } else if (c == '.') {
+                if (expectsName) {
+                    return null; // Deep scan (..)
+                }
+                i++;
+                expectsName = true;
+            } else {
+                int end = i;
+                while (end < length && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                final String name = path.substring(i, end);
+                if (name.equals("*") || name.indexOf(']') != -1 || name.indexOf('(') != -1) {
+                    return null; // Wildcard or function
+                }
+                steps.add(name);
+                i = end;
+                expectsName = false;
+            }
+        }
+        if (expectsName) {
+            throw new IllegalArgumentException("Path \"" + path + "\" should not be empty nor end with a dot.");
+        }
+        return steps.toArray();
+    }
+
+    private static boolean isIndex(@NonNull String content) {
+        if (content.isEmpty() || content.length() > 10) {
+            return false;
+        }
+        for (int i = content.charAt(0) == '-' ? 1 : 0; i < content.length(); i++) {
+            if (!Character.isDigit(content.charAt(i))) {
+                return false;
+            }
+        }
+        return content.length() > 1 || content.charAt(0) != '-';
+    }
+
+    /**
+     * Evaluates the paths that are not compiled with JsonPath, which is only loaded if such a path is used.
+     * Its results are converted to {@link JSONObject JSONObjects} and {@link JSONArray JSONArrays}, as the compiled paths return.
+     */
+    private static class JsonPathFallback {
+        private static final boolean AVAILABLE = isAvailable();
+
+        private static boolean isAvailable() {
+            try {
+                Class.forName("com.jayway.jsonpath.JsonPath");
+                return true;
+            } catch (ClassNotFoundException e) {
+                return false;
+            }
+        }
+
+        @Nullable
+        static Object read(@NonNull JSONObject record, @NonNull String path) {
+            if (!AVAILABLE) {
+                throw new IllegalArgumentException("Path \"" + path + "\" requires the com.jayway.jsonpath:json-path dependency.");
+            }
+            try {
+                return toJSON(com.jayway.jsonpath.JsonPath.read(record.toString(), path));
+            } catch (com.jayway.jsonpath.PathNotFoundException e) {
+                return null;
+            } catch (com.jayway.jsonpath.InvalidPathException e) {
+                throw new IllegalArgumentException("Invalid path \"" + path + "\".", e);
+            }
+        }
+
+        /** Converts the Maps and Lists JsonPath returns into their JSON counterparts. */
+        @Nullable
+        private static Object toJSON(@Nullable Object value) {
+            if (value instanceof Map) {
+                final JSONObject object = new JSONObject();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    try {
+                        object.put(String.valueOf(entry.getKey()), toJSONValue(entry.getValue()));
+                    } catch (JSONException e) {
+                        // Only thrown for non-finite numbers, which JSON cannot represent anyway
+                    }
+                }
+                return object;
+            }
+            if (value instanceof List) {
+                final JSONArray array = new JSONArray();
+                for (Object item : (List<?>) value) {
+                    array.put(toJSONValue(item));
+                }
+                return array;
+            }
+            return value;
+        }
+
+        /** Converts a value within an object or array, where a {@code null} is a JSON null. */
+        @NonNull
+        private static Object toJSONValue(@Nullable Object value) {
+            return value == null ? JSONObject.NULL : toJSON(value);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.algolia.instantsearch.utils;
+
+import android.support.annotation.NonNull;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes {@link JSONObject JSONObjects} in a compact binary format, and decodes them back.
+ * <p>
+ * Each value is written as a one-byte tag followed by its payload: integers as zigzag varints, doubles on 8 bytes,
+ * strings as their varint length followed by their UTF-8 bytes. Object keys are written once and then referenced
+ * by their index, as search responses repeat the same keys (e.g. {@code _highlightResult}, {@code value}, {@code matchLevel}) for every hit.
+ */
+public class BinaryJSON {
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_FALSE = 1;
+    private static final byte TAG_TRUE = 2;
+    private static final byte TAG_INTEGER = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_STRING = 5;
+    private static final byte TAG_ARRAY = 6;
+    private static final byte TAG_OBJECT = 7;
+
+    private BinaryJSON() {
+    }
+
+    /**
+     * Encodes a JSONObject.
+     *
+     * @param object the JSONObject to encode.
+     * @return the binary representation of this object.
+     */
+    @NonNull
+    public static byte[] encode(@NonNull JSONObject object) {
+        final Writer writer = new Writer();
+        writer.writeObject(object);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decodes a JSONObject from the current position of a buffer, which is advanced past the decoded object.
+     *
+     * @param buffer a ByteBuffer containing an {@link #encode(JSONObject) encoded} JSONObject.
+     * @return the decoded JSONObject.
+     * @throws IllegalArgumentException if the buffer does not contain a valid encoded object.
+     */
+    @NonNull
+    public static JSONObject decode(@NonNull ByteBuffer buffer) {
+        try {
+            final Object value = new Reader(buffer).readValue();
+            if (!(value instanceof JSONObject)) {
+                throw new IllegalArgumentException("Encoded value is not a JSONObject.");
+            }
+            return (JSONObject) value;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException | JSONException e) {
+            throw new IllegalArgumentException("Invalid encoded JSONObject.", e);
+        }
+    }
+
+    /**
+     * Writes a string as its varint length followed by its UTF-8 bytes.
+     *
+     * @param output the stream to write to.
+     * @param string the string to write.
+     */
+    public static void writeString(@NonNull ByteArrayOutputStream output, @NonNull String string) {
+        final byte[] bytes = string.getBytes(UTF_8);
+        writeVarLong(output, bytes.length);
+        output.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(ByteArrayOutputStream, String)}.
+     *
+     * @param buffer the buffer to read from.
+     * @return the decoded string.
+     * @throws IllegalArgumentException if the string's length exceeds the remaining bytes.
+     * @throws java.nio.BufferUnderflowException if the buffer ends within the string's length.
+     */
+    @NonNull
+    public static String readString(@NonNull ByteBuffer buffer) {
+        final long length = readVarLong(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length: " + length + ".");
+        }
+        final byte[] bytes = new byte[(int) length];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    static void writeVarLong(@NonNull ByteArrayOutputStream output, long value) {
+        while ((value & ~0x7FL) != 0) {
+            output.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.write((int) value);
+    }
+
+    static long readVarLong(@NonNull ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 63) {
+                throw new IllegalArgumentException("Malformed varint.");
+            }
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static class Writer {
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream(1024);
+        private final Map<String, Integer> keys = new HashMap<>();
+
+        byte[] toByteArray() {
+            return output.toByteArray();
+        }
+
+        void writeValue(Object value) {
+            if (value == null || value == JSONObject.NULL) {
+                output.write(TAG_NULL);
+            } else if (value instanceof Boolean) {
+                output.write((Boolean) value ? TAG_TRUE : TAG_FALSE);
+            } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+                final long longValue = ((Number) value).longValue();
+                output.write(TAG_INTEGER);
+                writeVarLong(output, (longValue << 1) ^ (longValue >> 63)); // zigzag: small negative values stay short
+            } else if (value instanceof Number) {
+                final long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+                output.write(TAG_DOUBLE);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    output.write((int) (bits >>> shift));
+                }
+            } else if (value instanceof JSONObject) {
+                writeObject((JSONObject) value);
+            } else if (value instanceof JSONArray) {
+                final JSONArray array = (JSONArray) value;
+                output.write(TAG_ARRAY);
+                writeVarLong(output, array.length());
+                for (int i = 0; i < array.length(); i++) {
+                    writeValue(array.opt(i));
+                }
+            } else {
+                output.write(TAG_STRING);
+                writeString(output, value.toString());
+            }
+        }
+
+        void writeObject(JSONObject object) {
+            output.write(TAG_OBJECT);
+            writeVarLong(output, object.length());
+            final Iterator<String> iterator = object.keys();
+            while (iterator.hasNext()) {
+                final String key = iterator.next();
+                writeKey(key);
+                writeValue(object.opt(key));
+            }
+        }
+
+        /** Writes 0 followed by the key on its first occurrence, then the key's index + 1. */
+        private void writeKey(String key) {
+            final Integer index = keys.get(key);
+            if (index != null) {
+                writeVarLong(output, index + 1);
+            } else {
+                keys.put(key, keys.size());
+                writeVarLong(output, 0);
+                writeString(output, key);
+            }
+        }
+    }
+
+    private static class Reader {
+        private final ByteBuffer buffer;
+        private final List<String> keys = new ArrayList<>();
+
+        Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        Object readValue() throws JSONException {
+            final byte tag = buffer.get();
+            switch (tag) {
+                case TAG_NULL:
+                    return JSONObject.NULL;
+                case TAG_FALSE:
+                    return Boolean.FALSE;
+                case TAG_TRUE:
+                    return Boolean.TRUE;
+                case TAG_INTEGER:
+                    final long zigzag = readVarLong(buffer);
+                    final long longValue = (zigzag >>> 1) ^ -(zigzag & 1);
+                    if (longValue == (int) longValue) {
+                        return (int) longValue;
+                    }
+                    return longValue;
+                case TAG_DOUBLE:
+                    return buffer.getDouble();
+                case TAG_STRING:
+                    return readString(buffer);
+                case TAG_ARRAY:
+                    final int length = (int) readVarLong(buffer);
+                    final JSONArray array = new JSONArray();
+                    for (int i = 0; i < length; i++) {
+                        array.put(readValue());
+                    }
+                    return array;
+                case TAG_OBJECT:
+                    final int size = (int) readVarLong(buffer);
+                    final JSONObject object = new JSONObject();
+                    for (int i = 0; i < size; i++) {
+                        final String key = readKey();
+                        object.put(key, readValue());
+                    }
+                    return object;
+                default:
+                    throw new IllegalArgumentException("Unknown tag " + tag + ".");
+            }
+        }
+
+        private String readKey() {
+            final int index = (int) readVarLong(buffer);
+            if (index == 0) {
+                final String key = readString(buffer);
+                keys.add(key);
+                return key;
+            }
+            return keys.get(index - 1);
+        }
+    }
+}
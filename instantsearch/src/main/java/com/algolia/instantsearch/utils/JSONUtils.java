@@ -1,13 +1,11 @@
 package com.algolia.instantsearch.utils;
 
-import android.util.Log;
-
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.PathNotFoundException;
+import android.support.annotation.Nullable;
 
 import org.json.JSONObject;
 
 import java.util.HashMap;
+import java.util.Iterator;
 
 /** Provides helper function for manipulating {@link JSONObject JSONObjects}. */
 public class JSONUtils {
@@ -17,30 +15,44 @@ public class JSONUtils {
      * @param record a JSONObject to traverse.
      * @param path   the json path to follow.
      * @return the attribute as a {@link String}, or null if it was not found.
+     * @throws IllegalArgumentException if the path is invalid.
      */
     public static String getStringFromJSONPath(JSONObject record, String path) {
-        final Object object = getObjectFromJSONPath(record, path);
-        return object == null ? null : object.toString();
+        return AttributePath.compile(path).getString(record);
     }
 
     /**
-     * Gets a Map of attributes from a json object given a path to traverse.
+     * Gets a JSONObject attribute from a json object given a path to traverse.
      *
      * @param record a JSONObject to traverse.
      * @param path   the json path to follow.
-     * @return the attributes as a {@link HashMap}, or null if it was not found.
+     * @return the attribute as a {@link JSONObject}, or null if it was not found or is not an object.
+     * @throws IllegalArgumentException if the path is invalid.
      */
-    public static HashMap<String, String> getMapFromJSONPath(JSONObject record, String path) {
-        return getObjectFromJSONPath(record, path);
+    public static @Nullable JSONObject getJSONObjectFromJSONPath(JSONObject record, String path) {
+        final Object object = AttributePath.compile(path).get(record);
+        return object instanceof JSONObject ? (JSONObject) object : null;
     }
 
-    private static <T> T getObjectFromJSONPath(JSONObject record, String path) {
-        final String json = record.toString();
-        try {
-            return JsonPath.read(json, path);
-        } catch (PathNotFoundException exception) {
-            Log.e("Algolia|JSONUtils", "Cannot find \"" + path + "\" in json:" + json);
+    /**
+     * Gets a Map of attributes from a json object given a path to traverse.
+     *
+     * @param record a JSONObject to traverse.
+     * @param path   the json path to follow.
+     * @return the attributes as a {@link HashMap}, or null if it was not found or is not an object.
+     * @throws IllegalArgumentException if the path is invalid.
+     */
+    public static HashMap<String, String> getMapFromJSONPath(JSONObject record, String path) {
+        final JSONObject object = getJSONObjectFromJSONPath(record, path);
+        if (object == null) {
             return null;
         }
+        final HashMap<String, String> map = new HashMap<>();
+        final Iterator<String> keys = object.keys();
+        while (keys.hasNext()) {
+            final String key = keys.next();
+            map.put(key, object.optString(key));
+        }
+        return map;
     }
 }
@@ -0,0 +1,62 @@
+package com.algolia.instantsearch.helpers;
+
+import com.algolia.instantsearch.InstantSearchTest;
+
+import junit.framework.Assert;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+public class DiskResponseCacheTest extends InstantSearchTest {
+    private static final long TTL = 60 * 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void getReturnsStoredResponse() throws IOException, JSONException {
+        final DiskResponseCache cache = new DiskResponseCache(folder.newFolder(), 1024 * 1024, TTL);
+        final JSONObject content = new JSONObject().put("nbHits", 42).put("query", "foo");
+
+        Assert.assertNull("An empty cache should not return anything", cache.get("index?query=foo"));
+        cache.put("index?query=foo", "index", content);
+        Assert.assertEquals("The cache should return the stored response", content.toString(), String.valueOf(cache.get("index?query=foo")));
+        Assert.assertNull("Another key should not match", cache.get("index?query=bar"));
+    }
+
+    @Test
+    public void expiredResponsesAreIgnored() throws IOException {
+        final DiskResponseCache cache = new DiskResponseCache(folder.newFolder(), 1024 * 1024, 0);
+        cache.put("index?query=foo", "index", new JSONObject());
+        Assert.assertNull("An expired entry should not be returned", cache.get("index?query=foo"));
+    }
+
+    @Test
+    public void invalidateRemovesIndexResponses() throws IOException {
+        final DiskResponseCache cache = new DiskResponseCache(folder.newFolder(), 1024 * 1024, TTL);
+        cache.put("index?query=foo", "index", new JSONObject());
+        cache.put("other?query=foo", "other", new JSONObject());
+        cache.invalidate("index");
+
+        Assert.assertNull("Responses of the invalidated index should be removed", cache.get("index?query=foo"));
+        Assert.assertNotNull("Responses of other indices should be kept", cache.get("other?query=foo"));
+    }
+
+    @Test
+    public void sizeIsBounded() throws IOException, JSONException {
+        final DiskResponseCache cache = new DiskResponseCache(folder.newFolder(), 512, TTL);
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            value.append('x');
+        }
+        for (int i = 0; i < 10; i++) {
+            cache.put("index?page=" + i, "index", new JSONObject().put("value", value.toString()));
+        }
+        Assert.assertTrue("The cache should not exceed its maximum size", cache.getSize() <= 512);
+    }
+}
@@ -0,0 +1,74 @@
+package com.algolia.instantsearch.helpers;
+
+import com.algolia.instantsearch.InstantSearchTest;
+import com.algolia.instantsearch.model.NumericRefinement;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class FilterGroupTest extends InstantSearchTest {
+    @Test
+    public void compilesGroups() {
+        final FilterGroup orGroup = new FilterGroup(FilterGroup.OPERATOR_OR).addFacet("brand", "A").addFacet("brand", "B");
+        final FilterGroup andGroup = new FilterGroup(FilterGroup.OPERATOR_AND)
+                .addNumeric(new NumericRefinement("price", NumericRefinement.OPERATOR_LT, 100))
+                .addFacet("color", "red", true);
+
+        Assert.assertEquals("An OR group should be parenthesized", "(brand:\"A\" OR brand:\"B\")", orGroup.compile());
+        Assert.assertEquals("An AND group should not be parenthesized", "price<100.000000 AND NOT color:\"red\"", andGroup.compile());
+        Assert.assertEquals("An empty group should compile to an empty string", "", new FilterGroup(FilterGroup.OPERATOR_OR).compile());
+    }
+
+    @Test
+    public void recompilesOnlyWhenModified() {
+        final FilterGroup group = new FilterGroup(FilterGroup.OPERATOR_OR).addFacet("brand", "A");
+        final String expression = group.compile();
+        Assert.assertSame("An unmodified group should not be recompiled", expression, group.compile());
+
+        group.addFacet("brand", "B");
+        Assert.assertEquals("A modified group should be recompiled", "(brand:\"A\" OR brand:\"B\")", group.compile());
+        group.removeFacet("brand", "B", false);
+        Assert.assertEquals("brand:\"A\"", group.compile());
+    }
+
+    @Test
+    public void escapesValues() {
+        Assert.assertEquals("Quotes in values should be escaped", "title:\"The \\\"best\\\" book\"", FilterGroup.facetFilter("title", "The \"best\" book", false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidOperatorThrows() {
+        new FilterGroup(42);
+    }
+
+    @Test
+    public void compilesDisjunctiveRefinements() {
+        final RefinementState state = RefinementState.EMPTY
+                .withFacetRefinement("brand", "A")
+                .withFacetRefinement("brand", "B")
+                .withFacetRefinement("color", "red")
+                .withBooleanFilter("free_shipping", true);
+
+        Assert.assertEquals("Disjunctive values should be combined with OR",
+                "(brand:\"A\" OR brand:\"B\") AND color:\"red\" AND free_shipping:true", state.getFilters(Collections.singletonList("brand")));
+        Assert.assertEquals("Conjunctive values should be combined with AND",
+                "brand:\"A\" AND brand:\"B\" AND color:\"red\" AND free_shipping:true", state.getFilters(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void parenthesizesDisjunctionsWhenJoining() {
+        final String group = new FilterGroup(FilterGroup.OPERATOR_OR).addFacet("brand", "A").addFacet("brand", "B").compile();
+
+        Assert.assertEquals("A user expression with a top-level OR should be parenthesized",
+                "(a:1 OR b:2) AND (brand:\"A\" OR brand:\"B\")", FilterGroup.join(Arrays.asList("a:1 OR b:2", group), false));
+        Assert.assertEquals("A conjunction should not be parenthesized",
+                "a:1 AND b:2 AND c:3", FilterGroup.join(Arrays.asList("a:1 AND b:2", "c:3"), false));
+        Assert.assertEquals("An OR within parentheses or quotes is not top-level",
+                "(a:1 OR b:2) AND title:\"this OR that\" AND c:3", FilterGroup.join(Arrays.asList("(a:1 OR b:2)", "title:\"this OR that\"", "c:3"), false));
+        Assert.assertFalse("OR within a word is not an operator", FilterGroup.hasTopLevelOr("color:ORANGE AND NOR:1"));
+    }
+}
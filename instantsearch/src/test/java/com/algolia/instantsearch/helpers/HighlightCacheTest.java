@@ -0,0 +1,49 @@
+package com.algolia.instantsearch.helpers;
+
+import android.text.Spannable;
+
+import com.algolia.instantsearch.InstantSearchTest;
+
+import junit.framework.Assert;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Collections;
+
+public class HighlightCacheTest extends InstantSearchTest {
+    @Test
+    public void rendersOnceAndEvicts() throws JSONException {
+        final HighlightCache cache = new HighlightCache(RuntimeEnvironment.application);
+        final JSONObject hit = newHit("<em>foo</em>bar");
+        final JSONObject otherHit = newHit("<em>bar</em>");
+
+        final Spannable rendered = cache.get(hit, "name");
+        Assert.assertNotNull(rendered);
+        Assert.assertEquals("foobar", rendered.toString());
+        Assert.assertSame("A rendered attribute should be cached", rendered, cache.get(hit, "name"));
+
+        cache.get(otherHit, "name");
+        cache.retain(Collections.singletonList(otherHit));
+        Assert.assertNotSame("A hit that is not retained should be evicted", rendered, cache.get(hit, "name"));
+    }
+
+    @Test
+    public void keysByHitInstance() throws JSONException {
+        final HighlightCache cache = new HighlightCache(RuntimeEnvironment.application);
+        final Spannable first = cache.get(newHit("<em>foo</em>"), "name");
+        final Spannable second = cache.get(newHit("<em>fo</em>o"), "name");
+        //noinspection ConstantConditions
+        Assert.assertEquals("A same record highlighted for another query should be rendered again", "foo", second.toString());
+        Assert.assertNotSame(first, second);
+    }
+
+    private static JSONObject newHit(String highlightedName) throws JSONException {
+        return new JSONObject()
+                .put("objectID", "1")
+                .put("name", highlightedName.replace("<em>", "").replace("</em>", ""))
+                .put("_highlightResult", new JSONObject().put("name", new JSONObject().put("value", highlightedName)));
+    }
+}
@@ -0,0 +1,53 @@
+package com.algolia.instantsearch.helpers;
+
+import android.graphics.Color;
+import android.text.Spannable;
+import android.text.style.BackgroundColorSpan;
+
+import com.algolia.instantsearch.InstantSearchTest;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class HighlighterTest extends InstantSearchTest {
+    private static final String MARKUP = "The <em>quick</em> brown fox <em>jumps</em> over the lazy dog";
+
+    @Test
+    public void rendersTags() {
+        final Spannable result = new Highlighter("<em>", "</em>").renderHighlightColor(MARKUP, Color.RED);
+        Assert.assertNotNull(result);
+        Assert.assertEquals("Tags should be removed", "The quick brown fox jumps over the lazy dog", result.toString());
+
+        final BackgroundColorSpan[] spans = result.getSpans(0, result.length(), BackgroundColorSpan.class);
+        Assert.assertEquals("Each highlighted part should have a span", 2, spans.length);
+        Assert.assertEquals("quick", result.subSequence(result.getSpanStart(spans[0]), result.getSpanEnd(spans[0])).toString());
+        Assert.assertEquals("jumps", result.subSequence(result.getSpanStart(spans[1]), result.getSpanEnd(spans[1])).toString());
+    }
+
+    @Test
+    public void rendersLikeRegexp() {
+        final Highlighter tagHighlighter = new Highlighter("<em>", "</em>");
+        final Highlighter regexpHighlighter = new Highlighter("<em>(.*?)</em>");
+        for (String markup : new String[]{MARKUP, "no highlight", "<em>all</em>", "unclosed <em>tag", "<em>a</em><em>b</em>"}) {
+            final Spannable expected = regexpHighlighter.renderHighlightColor(markup, Color.RED);
+            final Spannable actual = tagHighlighter.renderHighlightColor(markup, Color.RED);
+            //noinspection ConstantConditions
+            Assert.assertEquals("Rendering \"" + markup + "\" should match the regexp", expected.toString(), actual.toString());
+            Assert.assertEquals("Rendering \"" + markup + "\" should have as many spans as the regexp",
+                    expected.getSpans(0, expected.length(), BackgroundColorSpan.class).length,
+                    actual.getSpans(0, actual.length(), BackgroundColorSpan.class).length);
+        }
+    }
+
+    @Test
+    public void sharesSpansBetweenStrings() {
+        final Highlighter highlighter = new Highlighter("<em>", "</em>");
+        final Spannable first = highlighter.renderHighlightColor(MARKUP, Color.BLUE);
+        final Spannable second = highlighter.renderHighlightColor(MARKUP, Color.BLUE);
+        //noinspection ConstantConditions
+        Assert.assertSame("Spans of a same color should be shared",
+                first.getSpans(0, first.length(), BackgroundColorSpan.class)[0],
+                second.getSpans(0, second.length(), BackgroundColorSpan.class)[0]);
+    }
+}
@@ -0,0 +1,118 @@
+package com.algolia.instantsearch.helpers;
+
+import android.support.annotation.NonNull;
+
+import com.algolia.instantsearch.InstantSearchTest;
+import com.algolia.instantsearch.model.SearchResults;
+
+import junit.framework.Assert;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+public class ParallelHitsProcessorTest extends InstantSearchTest {
+    /** Decodes a hit again from its serialized form, as a stand-in for decoding rich records. */
+    private static final ParallelHitsProcessor.HitDecoder REPARSING_DECODER = new ParallelHitsProcessor.HitDecoder() {
+        @Override
+        public JSONObject decode(@NonNull JSONObject hit) {
+            try {
+                return new JSONObject(hit.toString());
+            } catch (JSONException e) {
+                return null;
+            }
+        }
+    };
+
+    @Test
+    public void mergesChunksInOrder() throws JSONException {
+        final SearchResults results = newResults(237);
+        new ParallelHitsProcessor(REPARSING_DECODER, 0, 10).process(results);
+
+        final List<JSONObject> hitList = results.getHitList();
+        Assert.assertEquals("Every hit should be decoded", 237, hitList.size());
+        for (int i = 0; i < hitList.size(); i++) {
+            Assert.assertEquals("Hits should keep their order", String.valueOf(i), hitList.get(i).getString("objectID"));
+        }
+    }
+
+    @Test
+    public void skipsHitsDecodedAsNull() throws JSONException {
+        final SearchResults results = newResults(100);
+        new ParallelHitsProcessor(new ParallelHitsProcessor.HitDecoder() {
+            @Override
+            public JSONObject decode(@NonNull JSONObject hit) {
+                return hit.optInt("rank") % 2 == 0 ? hit : null;
+            }
+        }, 0, 7).process(results);
+        Assert.assertEquals("Hits decoded as null should be skipped", 50, results.getHitList().size());
+    }
+
+    @Test
+    public void skipsHitsFailingToDecode() throws JSONException {
+        final SearchResults results = newResults(100);
+        new ParallelHitsProcessor(new ParallelHitsProcessor.HitDecoder() {
+            @Override
+            public JSONObject decode(@NonNull JSONObject hit) {
+                if (hit.optInt("rank") % 10 == 0) {
+                    throw new IllegalArgumentException("Invalid record");
+                }
+                return hit;
+            }
+        }, 0, 7).process(results);
+        Assert.assertEquals("Hits failing to decode should be skipped", 90, results.getHitList().size());
+    }
+
+    @Ignore("Benchmark: run manually to find the crossover point between serial and parallel decoding on a given machine")
+    @Test
+    public void benchmark() throws JSONException {
+        final int iterations = 20;
+        final ParallelHitsProcessor serial = new ParallelHitsProcessor(REPARSING_DECODER, Integer.MAX_VALUE, ParallelHitsProcessor.DEFAULT_CHUNK_SIZE);
+        final ParallelHitsProcessor parallel = new ParallelHitsProcessor(REPARSING_DECODER, 0, ParallelHitsProcessor.DEFAULT_CHUNK_SIZE);
+        for (int hitCount : new int[]{25, 50, 100, 200, 400, 800, 1000}) {
+            // Warm up both paths before measuring
+            serial.process(newResults(hitCount));
+            parallel.process(newResults(hitCount));
+
+            long serialTime = 0;
+            long parallelTime = 0;
+            for (int i = 0; i < iterations; i++) {
+                final SearchResults serialResults = newResults(hitCount);
+                final SearchResults parallelResults = newResults(hitCount);
+                long start = System.nanoTime();
+                serial.process(serialResults);
+                serialTime += System.nanoTime() - start;
+                start = System.nanoTime();
+                parallel.process(parallelResults);
+                parallelTime += System.nanoTime() - start;
+            }
+            System.out.println(String.format(Locale.ROOT, "%4d hits: serial %6dµs, parallel %6dµs", hitCount,
+                    serialTime / iterations / 1000, parallelTime / iterations / 1000));
+        }
+    }
+
+    @NonNull
+    private static SearchResults newResults(int hitCount) throws JSONException {
+        final JSONArray hits = new JSONArray();
+        for (int i = 0; i < hitCount; i++) {
+            hits.put(new JSONObject()
+                    .put("objectID", String.valueOf(i))
+                    .put("rank", i)
+                    .put("name", "Product " + i)
+                    .put("description", "A rich record with a long description, some tags and a few nested attributes.")
+                    .put("tags", new JSONArray().put("foo").put("bar").put("baz"))
+                    .put("_highlightResult", new JSONObject().put("name", new JSONObject().put("value", "<em>Product</em> " + i))));
+        }
+        return new SearchResults(new JSONObject()
+                .put("hits", hits)
+                .put("nbHits", hitCount)
+                .put("query", "product")
+                .put("params", "query=product")
+                .put("processingTimeMS", 1));
+    }
+}
@@ -0,0 +1,57 @@
+package com.algolia.instantsearch.helpers;
+
+import com.algolia.instantsearch.InstantSearchTest;
+
+import junit.framework.Assert;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class PrefixNarrowerTest extends InstantSearchTest {
+    private static JSONObject hit(String name, String highlightedName) throws JSONException {
+        return new JSONObject().put("name", name)
+                .put("_highlightResult", new JSONObject().put("name", new JSONObject()
+                        .put("value", highlightedName)
+                        .put("matchLevel", "full")
+                        .put("matchedWords", new JSONArray().put("iph"))));
+    }
+
+    @Test
+    public void isExtension() {
+        Assert.assertTrue("A longer query with the same start should be an extension", PrefixNarrower.isExtension("iph", "ipho"));
+        Assert.assertFalse("A shorter query should not be an extension", PrefixNarrower.isExtension("ipho", "iph"));
+        Assert.assertFalse("A different query should not be an extension", PrefixNarrower.isExtension("iph", "ipad"));
+        Assert.assertFalse("The same query should not be an extension", PrefixNarrower.isExtension("iph", "iph"));
+    }
+
+    @Test
+    public void tokenizeNormalizes() {
+        Assert.assertEquals("Words should be lower-cased and stripped from their diacritics",
+                Arrays.asList("creme", "brulee", "42"), PrefixNarrower.tokenize("Crème-Brûlée 42"));
+    }
+
+    @Test
+    public void narrowKeepsMatchingHits() throws JSONException {
+        final JSONObject content = new JSONObject()
+                .put("query", "iph")
+                .put("nbHits", 1000)
+                .put("hits", new JSONArray()
+                        .put(hit("iPhone 7", "<em>iPh</em>one 7"))
+                        .put(hit("Graphite iPhone case", "Graphite <em>iPh</em>one case"))
+                        .put(hit("Iphigenia", "<em>Iph</em>igenia")));
+
+        final JSONObject narrowed = PrefixNarrower.narrow(content, "ipho");
+        Assert.assertNotNull("Some hits should match", narrowed);
+        Assert.assertEquals("Only hits matching the extended query should be kept", 2, narrowed.getJSONArray("hits").length());
+        Assert.assertEquals("nbHits should reflect the narrowed hits", 2, narrowed.getInt("nbHits"));
+        Assert.assertEquals("The narrowed response should be for the new query", "ipho", narrowed.getString("query"));
+        Assert.assertEquals("The original response should not be modified", 3, content.getJSONArray("hits").length());
+
+        Assert.assertEquals("Every query word should match", 1, PrefixNarrower.narrow(content, "iphone 7").getJSONArray("hits").length());
+        Assert.assertNull("No hit should match", PrefixNarrower.narrow(content, "iphx"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.algolia.instantsearch.helpers;
+
+import com.algolia.instantsearch.Helpers;
+import com.algolia.instantsearch.InstantSearchTest;
+import com.algolia.search.saas.Client;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.robolectric.shadows.ShadowLooper;
+
+public class QuerySchedulerTest extends InstantSearchTest {
+    private QueryScheduler initScheduler() {
+        final Client client = new Client(Helpers.app_id, Helpers.api_key);
+        return new QueryScheduler(new Searcher(client.getIndex(Helpers.safeIndexName("test"))));
+    }
+
+    @Test
+    public void delayFollowsRoundTripTime() {
+        final QueryScheduler scheduler = initScheduler().setLatencyFactor(0.5f);
+        Assert.assertEquals("The delay should be half the round-trip time", 100, scheduler.computeDelay(200));
+    }
+
+    @Test
+    public void delayIsBounded() {
+        final QueryScheduler scheduler = initScheduler().setDelayBounds(20, 300);
+        Assert.assertEquals("Without any measure, the delay should be the minimum one", 20, scheduler.computeDelay(0));
+        Assert.assertEquals("The delay should not exceed the maximum one", 300, scheduler.computeDelay(10000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidBoundsThrow() {
+        initScheduler().setDelayBounds(300, 20);
+    }
+
+    @Test
+    public void scheduledQueryIsPending() {
+        final QueryScheduler scheduler = initScheduler();
+        scheduler.schedule("foo");
+        Assert.assertTrue("A debounced query should be pending", scheduler.hasPendingQuery());
+        scheduler.cancel();
+        Assert.assertFalse("A cancelled query should not be pending anymore", scheduler.hasPendingQuery());
+    }
+
+    @Test
+    public void cancelledQueryIsNotSent() {
+        final QueryScheduler scheduler = initScheduler();
+        scheduler.schedule("foo");
+        scheduler.cancel(); // As when the search text is cleared
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        Assert.assertFalse("A cancelled query should not be pending", scheduler.hasPendingQuery());
+        Assert.assertEquals("A cancelled query should never be sent", 1, scheduler.getSkippedCount());
+    }
+}
@@ -0,0 +1,46 @@
+package com.algolia.instantsearch.helpers;
+
+import com.algolia.instantsearch.InstantSearchTest;
+import com.algolia.instantsearch.model.NumericRefinement;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class RefinementStateTest extends InstantSearchTest {
+    @Test
+    public void serializesFilters() {
+        final RefinementState state = RefinementState.EMPTY
+                .withFacetRefinement("brand", "Apple")
+                .withFacetRefinement("brand", "Samsung")
+                .withBooleanFilter("free_shipping", true)
+                .withNumericRefinement(new NumericRefinement("price", NumericRefinement.OPERATOR_LE, 42));
+
+        Assert.assertEquals("facetFilters should contain facet and boolean refinements", "[\"brand:Apple\",\"brand:Samsung\",\"free_shipping:true\"]", state.getFacetFilters());
+        Assert.assertEquals("numericFilters should contain the numeric refinement", "[\"price<=42.000000\"]", state.getNumericFilters());
+        Assert.assertEquals("An empty state should have empty filters", "[]", RefinementState.EMPTY.getFacetFilters());
+    }
+
+    @Test
+    public void changesReturnNewStates() {
+        final RefinementState state = RefinementState.EMPTY.withFacetRefinement("brand", "Apple");
+        final RefinementState other = state.withFacetRefinement("color", "red");
+
+        Assert.assertNotSame("A change should return a new state", state, other);
+        Assert.assertFalse("The previous state should not be modified", state.hasFacetRefinement("color", "red"));
+        Assert.assertTrue(other.hasFacetRefinement("brand", "Apple"));
+        Assert.assertSame("Adding an existing refinement should return the same state", other, other.withFacetRefinement("color", "red"));
+        Assert.assertSame("Removing a missing refinement should return the same state", other, other.withoutFacetRefinement("color", "blue"));
+    }
+
+    @Test
+    public void equalStatesHaveEqualHashes() {
+        final RefinementState state = RefinementState.EMPTY.withFacetRefinement("brand", "Apple").withBooleanFilter("free_shipping", false);
+        final RefinementState same = RefinementState.EMPTY.withBooleanFilter("free_shipping", false).withFacetRefinement("brand", "Apple");
+
+        Assert.assertEquals("States with the same refinements should be equal", state, same);
+        Assert.assertEquals("States with the same refinements should have the same hash", state.hashCode(), same.hashCode());
+        Assert.assertEquals("Removing every refinement should give back an empty state", RefinementState.EMPTY,
+                state.withoutFacetRefinement("brand", "Apple").withBooleanFilter("free_shipping", null));
+    }
+}
@@ -0,0 +1,87 @@
+package com.algolia.instantsearch.helpers;
+
+import com.algolia.instantsearch.InstantSearchTest;
+import com.algolia.search.saas.AlgoliaException;
+import com.algolia.search.saas.CompletionHandler;
+import com.algolia.search.saas.Request;
+
+import junit.framework.Assert;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RequestCoalescerTest extends InstantSearchTest {
+    @Test
+    public void identicalRequestsAreCoalesced() {
+        final RequestCoalescer coalescer = new RequestCoalescer();
+        final List<String> calls = new ArrayList<>();
+        Assert.assertNull("Nothing should be in flight yet", coalescer.attach("key", recordingHandler(calls, "first")));
+
+        final RequestCoalescer.InFlightRequest inFlightRequest = coalescer.start("key");
+        inFlightRequest.setRequest(new FakeRequest());
+        inFlightRequest.attach(recordingHandler(calls, "first"));
+        Assert.assertNotNull("An identical request should be attached", coalescer.attach("key", recordingHandler(calls, "second")));
+        Assert.assertNull("A different request should not be attached", coalescer.attach("other", recordingHandler(calls, "other")));
+        Assert.assertEquals("One request should have been coalesced", 1, coalescer.getCoalescedCount());
+
+        final JSONObject content = new JSONObject();
+        inFlightRequest.requestCompleted(content, null);
+        Assert.assertEquals("Both callers should get the response, most recent first", "[second, first]", calls.toString());
+        Assert.assertNull("A completed request should not be in flight anymore", coalescer.attach("key", recordingHandler(calls, "third")));
+    }
+
+    @Test
+    public void sharedRequestIsCancelledWithItsLastCaller() {
+        final RequestCoalescer coalescer = new RequestCoalescer();
+        final List<String> calls = new ArrayList<>();
+        final FakeRequest networkRequest = new FakeRequest();
+        final RequestCoalescer.InFlightRequest inFlightRequest = coalescer.start("key");
+        inFlightRequest.setRequest(networkRequest);
+        final Request first = inFlightRequest.attach(recordingHandler(calls, "first"));
+        final Request second = coalescer.attach("key", recordingHandler(calls, "second"));
+        Assert.assertNotNull(second);
+
+        first.cancel();
+        Assert.assertFalse("The shared request should remain while a caller waits for it", networkRequest.isCancelled());
+        inFlightRequest.requestCompleted(new JSONObject(), null);
+        Assert.assertEquals("Only the remaining caller should get the response", "[second]", calls.toString());
+        Assert.assertTrue(second.isFinished());
+
+        final FakeRequest otherRequest = new FakeRequest();
+        final RequestCoalescer.InFlightRequest otherInFlightRequest = coalescer.start("other");
+        otherInFlightRequest.setRequest(otherRequest);
+        otherInFlightRequest.attach(recordingHandler(calls, "other")).cancel();
+        Assert.assertTrue("The shared request should be cancelled with its last caller", otherRequest.isCancelled());
+    }
+
+    private static CompletionHandler recordingHandler(final List<String> calls, final String name) {
+        return new CompletionHandler() {
+            @Override
+            public void requestCompleted(JSONObject content, AlgoliaException error) {
+                calls.add(name);
+            }
+        };
+    }
+
+    private static class FakeRequest implements Request {
+        private boolean cancelled;
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return false;
+        }
+    }
+}
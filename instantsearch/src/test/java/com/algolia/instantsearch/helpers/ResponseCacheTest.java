@@ -0,0 +1,96 @@
+package com.algolia.instantsearch.helpers;
+
+import com.algolia.instantsearch.Helpers;
+import com.algolia.instantsearch.InstantSearchTest;
+import com.algolia.search.saas.Client;
+import com.algolia.search.saas.Index;
+import com.algolia.search.saas.Query;
+
+import junit.framework.Assert;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class ResponseCacheTest extends InstantSearchTest {
+    private static final long TTL = 60 * 1000;
+
+    @Test
+    public void getReturnsStoredResponse() throws JSONException {
+        final ResponseCache cache = new ResponseCache(2, TTL);
+        final JSONObject content = new JSONObject().put("nbHits", 42);
+
+        Assert.assertNull("An empty cache should not return anything", cache.get("foo"));
+        cache.put("foo", "index", content);
+        Assert.assertSame("The cache should return the stored response", content, cache.get("foo"));
+        Assert.assertEquals("There should be one hit", 1, cache.getHitCount());
+        Assert.assertEquals("There should be one miss", 1, cache.getMissCount());
+    }
+
+    @Test
+    public void getAsyncChecksMemoryFirst() throws JSONException {
+        final ResponseCache cache = new ResponseCache(2, TTL);
+        final JSONObject content = new JSONObject().put("nbHits", 42);
+        final JSONObject[] lookedUp = {content};
+        final ResponseCache.LookupListener listener = new ResponseCache.LookupListener() {
+            @Override
+            public void onLookup(JSONObject content) {
+                lookedUp[0] = content;
+            }
+        };
+
+        Assert.assertNull("An empty cache should not return anything", cache.getAsync("foo", listener));
+        Assert.assertNull("Without a disk tier, the listener should be called right away with nothing", lookedUp[0]);
+        cache.put("foo", "index", content);
+        lookedUp[0] = null;
+        Assert.assertSame("The response in memory should be returned", content, cache.getAsync("foo", listener));
+        Assert.assertNull("The listener should not be called when the response is in memory", lookedUp[0]);
+        Assert.assertEquals("There should be one hit", 1, cache.getHitCount());
+        Assert.assertEquals("There should be one miss", 1, cache.getMissCount());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws JSONException {
+        final ResponseCache cache = new ResponseCache(2, TTL);
+        cache.put("foo", "index", new JSONObject());
+        cache.put("bar", "index", new JSONObject());
+        cache.get("foo");
+        cache.put("baz", "index", new JSONObject());
+
+        Assert.assertEquals("The cache should not exceed its maximum size", 2, cache.size());
+        Assert.assertNotNull("The recently used entry should be kept", cache.get("foo"));
+        Assert.assertNull("The least recently used entry should be evicted", cache.get("bar"));
+    }
+
+    @Test
+    public void expiredResponsesAreIgnored() {
+        final ResponseCache cache = new ResponseCache(2, 0);
+        cache.put("foo", "index", new JSONObject());
+        Assert.assertNull("An expired entry should not be returned", cache.get("foo"));
+    }
+
+    @Test
+    public void invalidateRemovesIndexResponses() {
+        final ResponseCache cache = new ResponseCache(4, TTL);
+        cache.put("foo", "index", new JSONObject());
+        cache.put("bar", "other", new JSONObject());
+        cache.invalidate("index");
+
+        Assert.assertNull("Responses of the invalidated index should be removed", cache.get("foo"));
+        Assert.assertNotNull("Responses of other indices should be kept", cache.get("bar"));
+    }
+
+    @SuppressWarnings("deprecation") // deprecated facetFilters are used on purpose for filters managed programmatically
+    @Test
+    public void keyDependsOnQueryState() {
+        final Index index = new Client(Helpers.app_id, Helpers.api_key).getIndex("index");
+        final Query query = new Query("foo");
+        final String key = ResponseCache.getKey(index, query, null);
+
+        Assert.assertEquals("Identical queries should have the same key", key, ResponseCache.getKey(index, new Query("foo"), null));
+        query.setFacetFilters(new JSONArray().put("attribute:bar"));
+        Assert.assertFalse("Refining should change the key", key.equals(ResponseCache.getKey(index, query, null)));
+        Assert.assertFalse("Another page should have another key", key.equals(ResponseCache.getKey(index, new Query("foo").setPage(1), null)));
+    }
+}
@@ -0,0 +1,48 @@
+package com.algolia.instantsearch.helpers;
+
+import com.algolia.instantsearch.Helpers;
+import com.algolia.instantsearch.InstantSearchTest;
+import com.algolia.search.saas.AlgoliaException;
+import com.algolia.search.saas.Client;
+import com.algolia.search.saas.CompletionHandler;
+import com.algolia.search.saas.Index;
+import com.algolia.search.saas.Query;
+import com.algolia.search.saas.Request;
+
+import junit.framework.Assert;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class SearchBatcherTest extends InstantSearchTest {
+    private final Index index = new Client(Helpers.app_id, Helpers.api_key).getIndex(Helpers.safeIndexName("test"));
+
+    @Test
+    public void registerSetsBatcher() {
+        final SearchBatcher batcher = new SearchBatcher();
+        final Searcher searcher = new Searcher(index);
+        batcher.register(searcher);
+        Assert.assertSame("A registered Searcher should use the batcher", batcher, searcher.getSearchBatcher());
+        batcher.unregister(searcher);
+        Assert.assertNull("An unregistered Searcher should not use the batcher", searcher.getSearchBatcher());
+    }
+
+    @Test
+    public void cancelledSearchIsNotSent() {
+        final SearchBatcher batcher = new SearchBatcher();
+        final boolean[] completed = {false};
+        final Request request = batcher.searchAsync(index, new Query("foo"), new CompletionHandler() {
+            @Override
+            public void requestCompleted(JSONObject content, AlgoliaException error) {
+                completed[0] = true;
+            }
+        });
+        request.cancel();
+        batcher.flush();
+
+        Assert.assertTrue("The request should be cancelled", request.isCancelled());
+        Assert.assertFalse("A cancelled request should not be finished", request.isFinished());
+        Assert.assertFalse("A cancelled request should not complete", completed[0]);
+        Assert.assertEquals("A cancelled request should not be batched", 0, batcher.getBatchedSearchCount());
+    }
+}
@@ -144,4 +144,40 @@ public class SearcherTest extends InstantSearchTest {
         Assert.assertFalse("facetFilters should have no more refinements on attribute", searcher.getQuery().getFacetFilters().toString().contains("attribute"));
         Assert.assertTrue("facetFilters should still contain the other attribute's refinement", searcher.getQuery().getFacetFilters().toString().contains("other:baz"));
     }
+
+    @SuppressWarnings("deprecation") // deprecated facetFilters are used on purpose for filters managed programmatically
+    @Test
+    public void concurrentRefinements() throws InterruptedException {
+        final Searcher searcher = initSearcher();
+        final int threadCount = 4;
+        final int refinementCount = 50;
+        final Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final String attribute = "attribute" + t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < refinementCount; i++) {
+                        searcher.addFacetRefinement(attribute, "value" + i);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals("No refinement should be lost when refining from several threads", threadCount * refinementCount, searcher.getQuery().getFacetFilters().length());
+    }
+
+    @SuppressWarnings("deprecation") // Searcher.get is deprecated but still supported
+    @Test
+    public void releasedSearcherLeavesRegistry() {
+        final Searcher searcher = initSearcher();
+        Assert.assertSame("A live Searcher should be found by its id", searcher, Searcher.get(searcher.getId()));
+
+        searcher.release();
+        Assert.assertNull("A released Searcher should not be found anymore", Searcher.get(searcher.getId()));
+        Assert.assertFalse("A released Searcher should have no pending request", searcher.hasPendingRequests());
+    }
 }
@@ -0,0 +1,54 @@
+package com.algolia.instantsearch.model;
+
+import com.algolia.instantsearch.InstantSearchTest;
+import com.algolia.instantsearch.events.ResultEvent;
+
+import junit.framework.Assert;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.List;
+
+public class SearchResultsTest extends InstantSearchTest {
+    private static final String RESPONSE = "{\"hits\":[],\"nbHits\":12,\"query\":\"q\",\"params\":\"query=q\",\"processingTimeMS\":1," +
+            "\"facets\":{\"brand\":{\"A\":8,\"B\":4},\"color\":{\"red\":12}},\"disjunctiveFacets\":{\"brand\":{}}}";
+
+    @Test
+    public void parsesFacetsLazily() throws JSONException {
+        final SearchResults results = new SearchResults(new JSONObject(RESPONSE));
+        Assert.assertEquals(12, results.nbHits);
+
+        final List<FacetValue> brands = results.getFacetValues("brand");
+        Assert.assertNotNull(brands);
+        Assert.assertEquals("Each facet value should be parsed", 2, brands.size());
+        Assert.assertSame("Facet values should be parsed only once", brands, results.getFacetValues("brand"));
+        Assert.assertNull("An attribute without facets should have no values", results.getFacetValues("size"));
+
+        Assert.assertEquals("Every attribute should be parsed when getting all facets", 2, results.getFacets().size());
+        Assert.assertSame("Previously parsed values should be kept", brands, results.getFacets().get("brand"));
+        Assert.assertEquals("brand", results.getDisjunctiveFacets().get(0));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation") // Deprecated fields are kept for compatibility
+    public void deprecatedFieldsReadFacets() throws JSONException {
+        final SearchResults results = new SearchResults(new JSONObject(RESPONSE));
+        Assert.assertSame("The facets field should give the parsed values", results.getFacetValues("brand"), results.facets.get("brand"));
+        Assert.assertEquals(2, results.facets.size());
+        Assert.assertEquals(results.getDisjunctiveFacets(), results.disjunctiveFacets);
+    }
+
+    @Test
+    public void resultEventAcceptsInvalidContent() throws JSONException {
+        final ResultEvent event = new ResultEvent(new JSONObject("{\"hits\":[]}"), null, 1);
+        Assert.assertNotNull("The content should be kept", event.content);
+        Assert.assertNull("Invalid content should not be parsed", event.results);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void throwsOnMissingMandatoryField() throws JSONException {
+        new SearchResults(new JSONObject("{\"hits\":[]}"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.algolia.instantsearch.ui.views;
+
+import com.algolia.instantsearch.InstantSearchTest;
+
+import junit.framework.Assert;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class HitPageStoreTest extends InstantSearchTest {
+    private static final int HITS_PER_PAGE = 10;
+
+    @Test
+    public void evictsFarthestPages() throws JSONException {
+        final HitPageStore store = newStore(5);
+        Assert.assertEquals(50, store.getLoadedCount());
+
+        // Viewing the fourth page, with room for three pages
+        Assert.assertEquals("Two pages should be evicted", 2, store.trim(30, 39, 30));
+        Assert.assertEquals(30, store.getLoadedCount());
+        Assert.assertEquals("Positions should not move", 50, store.size());
+        Assert.assertSame("The farthest page should be evicted", HitPageStore.PLACEHOLDER, store.get(0));
+        Assert.assertSame("The second farthest page should be evicted", HitPageStore.PLACEHOLDER, store.get(10));
+        Assert.assertEquals("20", store.get(20).getString("objectID"));
+        Assert.assertEquals("Keys should be kept for evicted hits", "5", store.getKey(5));
+        Assert.assertNull("Hits should not be listed while some are evicted", store.getHits());
+        Assert.assertEquals(2, store.getEvictionCount());
+        Assert.assertEquals("Only the hits of loaded pages should be listed", 30, store.getLoadedHits().size());
+        Assert.assertEquals("20", store.getLoadedHits().get(0).getString("objectID"));
+    }
+
+    @Test
+    public void keepsVisibleAndLastPages() throws JSONException {
+        final HitPageStore store = newStore(3);
+        Assert.assertEquals("Only the first page can be evicted", 1, store.trim(15, 15, 0));
+        Assert.assertEquals(20, store.getLoadedCount());
+    }
+
+    @Test
+    public void restoresEvictedPages() throws JSONException {
+        final HitPageStore store = newStore(4);
+        store.trim(35, 39, 20);
+        Assert.assertEquals(Collections.singletonList(0), store.getEvictedPages(0, 5));
+
+        store.setRestoring(0, true);
+        Assert.assertTrue("A page being restored should not be requested again", store.getEvictedPages(0, 5).isEmpty());
+
+        Assert.assertTrue(store.restorePage(0, newPage(0, 7)));
+        Assert.assertEquals("0", store.get(0).getString("objectID"));
+        Assert.assertSame("Missing hits should be placeholders", HitPageStore.PLACEHOLDER, store.get(8));
+        Assert.assertFalse("A loaded page should not be restored", store.restorePage(0, newPage(0, 10)));
+        Assert.assertEquals(1, store.getRestorationCount());
+    }
+
+    private static HitPageStore newStore(int pageCount) throws JSONException {
+        final HitPageStore store = new HitPageStore();
+        for (int page = 0; page < pageCount; page++) {
+            store.startPage();
+            for (JSONObject hit : newPage(page, HITS_PER_PAGE)) {
+                store.add(hit);
+            }
+        }
+        return store;
+    }
+
+    private static List<JSONObject> newPage(int page, int hitCount) throws JSONException {
+        final List<JSONObject> hits = new ArrayList<>();
+        for (int i = 0; i < hitCount; i++) {
+            hits.add(new JSONObject().put("objectID", String.valueOf(page * HITS_PER_PAGE + i)));
+        }
+        return hits;
+    }
+}
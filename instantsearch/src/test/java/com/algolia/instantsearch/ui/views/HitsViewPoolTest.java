@@ -0,0 +1,25 @@
+package com.algolia.instantsearch.ui.views;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+
+import com.algolia.instantsearch.InstantSearchTest;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.robolectric.RuntimeEnvironment;
+
+public class HitsViewPoolTest extends InstantSearchTest {
+    private static final int LAYOUT_ID = 42;
+
+    @Test
+    public void sharesByContextAndLayout() {
+        final Context context = RuntimeEnvironment.application;
+        final HitsViewPool pool = HitsViewPool.getShared(context, LAYOUT_ID);
+
+        Assert.assertSame("Widgets of a same context using a same layout should share their pool", pool, HitsViewPool.getShared(context, LAYOUT_ID));
+        Assert.assertNotSame("Widgets using another layout should not share the pool", pool, HitsViewPool.getShared(context, LAYOUT_ID + 1));
+        Assert.assertNotSame("Widgets of another context should not share the pool", pool, HitsViewPool.getShared(new ContextWrapper(context), LAYOUT_ID));
+    }
+}
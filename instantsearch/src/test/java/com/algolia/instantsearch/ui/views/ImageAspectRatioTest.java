@@ -0,0 +1,54 @@
+package com.algolia.instantsearch.ui.views;
+
+import android.widget.ImageView;
+
+import com.algolia.instantsearch.InstantSearchTest;
+import com.algolia.instantsearch.ui.databinding.BindingHelper;
+
+import junit.framework.Assert;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.robolectric.RuntimeEnvironment;
+
+@SuppressWarnings("deprecation") // Binding adapters are called as Data Binding would
+public class ImageAspectRatioTest extends InstantSearchTest {
+    private static final int RATIO_VIEW_ID = 4201;
+    private static final int SIZE_VIEW_ID = 4202;
+
+    @Test
+    public void readsAspectRatio() throws JSONException {
+        BindingHelper.bindAspectRatio(newImageView(RATIO_VIEW_ID), "image", "ratio");
+        final ImageAspectRatio aspectRatio = ImageAspectRatio.compile(RATIO_VIEW_ID);
+        Assert.assertNotNull("A declared aspect ratio should be compiled", aspectRatio);
+
+        Assert.assertEquals(1.5f, aspectRatio.get(new JSONObject().put("ratio", 1.5)), 0.001f);
+        Assert.assertEquals("A ratio can be written width:height", 1.5f, aspectRatio.get(new JSONObject().put("ratio", "3:2")), 0.001f);
+        Assert.assertEquals("A ratio can be a numeric string", 0.5f, aspectRatio.get(new JSONObject().put("ratio", "0.5")), 0.001f);
+        Assert.assertEquals("A missing ratio should be 0", 0f, aspectRatio.get(new JSONObject()));
+        Assert.assertEquals("An invalid ratio should be 0", 0f, aspectRatio.get(new JSONObject().put("ratio", "wide")));
+        Assert.assertEquals("A negative ratio should be 0", 0f, aspectRatio.get(new JSONObject().put("ratio", -2)));
+    }
+
+    @Test
+    public void readsSize() throws JSONException {
+        BindingHelper.bindSize(newImageView(SIZE_VIEW_ID), "image", "size.width", "size.height");
+        final ImageAspectRatio aspectRatio = ImageAspectRatio.compile(SIZE_VIEW_ID);
+        Assert.assertNotNull("A declared size should be compiled", aspectRatio);
+
+        Assert.assertEquals(2f, aspectRatio.get(new JSONObject().put("size", new JSONObject().put("width", 800).put("height", 400))), 0.001f);
+        Assert.assertEquals("A zero height should be ignored", 0f, aspectRatio.get(new JSONObject().put("size", new JSONObject().put("width", 800).put("height", 0))));
+    }
+
+    @Test
+    public void ignoresPlainBindings() {
+        Assert.assertNull("A view without aspect ratio should not get one", ImageAspectRatio.compile(4203));
+    }
+
+    private static ImageView newImageView(int id) {
+        final ImageView view = new ImageView(RuntimeEnvironment.application);
+        view.setId(id);
+        return view;
+    }
+}
@@ -0,0 +1,61 @@
+package com.algolia.instantsearch.utils;
+
+import com.algolia.instantsearch.InstantSearchTest;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+public class BinaryJSONTest extends InstantSearchTest {
+
+    @Test
+    public void roundTripsValues() throws JSONException {
+        JSONObject input = new JSONObject()
+                .put("string", "fôö")
+                .put("int", -42)
+                .put("long", 1L << 40)
+                .put("double", 4.2)
+                .put("true", true)
+                .put("false", false)
+                .put("null", JSONObject.NULL)
+                .put("array", new JSONArray().put(1).put("two").put(new JSONObject().put("three", 3)))
+                .put("object", new JSONObject().put("nested", new JSONObject().put("value", "<em>foo</em>")));
+
+        JSONObject output = BinaryJSON.decode(ByteBuffer.wrap(BinaryJSON.encode(input)));
+        assertEquals("Decoding an encoded object should give back the same object", input.toString(), output.toString());
+    }
+
+    @Test
+    public void repeatedKeysAreShared() throws JSONException {
+        JSONArray hits = new JSONArray();
+        for (int i = 0; i < 100; i++) {
+            hits.put(new JSONObject().put("_highlightResult", new JSONObject().put("value", i)));
+        }
+        JSONObject input = new JSONObject().put("hits", hits);
+
+        final byte[] encoded = BinaryJSON.encode(input);
+        assertTrue("The encoded object should be smaller than its JSON text", encoded.length < input.toString().length() / 2);
+        assertEquals("Shared keys should be decoded properly", input.toString(), BinaryJSON.decode(ByteBuffer.wrap(encoded)).toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedInputThrows() throws JSONException {
+        final byte[] encoded = BinaryJSON.encode(new JSONObject().put("foo", "bar"));
+        BinaryJSON.decode(ByteBuffer.wrap(encoded, 0, encoded.length - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void oversizedStringLengthThrows() {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryJSON.writeVarLong(output, Integer.MAX_VALUE); // Far more than the bytes that follow
+        output.write('x');
+        BinaryJSON.readString(ByteBuffer.wrap(output.toByteArray()));
+    }
+}
@@ -1,7 +1,6 @@
 package com.algolia.instantsearch.utils;
 
 import com.algolia.instantsearch.InstantSearchTest;
-import com.jayway.jsonpath.InvalidPathException;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -9,6 +8,8 @@ import org.json.JSONObject;
 import org.junit.Test;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.fail;
 
 public class JSONUtilsTest extends InstantSearchTest {
@@ -49,7 +50,35 @@ public class JSONUtilsTest extends InstantSearchTest {
         assertEquals("Failed to get the attribute of an array item", "42", JSONUtils.getStringFromJSONPath(data, "foo[0][0]"));
     }
 
-    @Test(expected = InvalidPathException.class)
+    @Test
+    public void getBracketAttribute() throws JSONException {
+        JSONObject data = new JSONObject().put("foo", new JSONObject().put("bar.baz", "42"));
+        assertEquals("Failed to get an attribute in bracket notation", "42", JSONUtils.getStringFromJSONPath(data, "foo['bar.baz']"));
+        assertEquals("Failed to get an attribute from the root", "42", JSONUtils.getStringFromJSONPath(data, "$.foo['bar.baz']"));
+    }
+
+    @Test
+    public void getMissingAttribute() throws JSONException {
+        JSONObject data = new JSONObject().put("foo", new JSONArray().put("42")).put("bar", JSONObject.NULL);
+        assertNull("A missing attribute should be null", JSONUtils.getStringFromJSONPath(data, "baz.qux"));
+        assertNull("An out of bounds index should be null", JSONUtils.getStringFromJSONPath(data, "foo[1]"));
+        assertNull("An index on an object should be null", JSONUtils.getStringFromJSONPath(data, "foo.bar"));
+        assertNull("A null attribute should be null", JSONUtils.getStringFromJSONPath(data, "bar"));
+    }
+
+    @Test
+    public void getWithJsonPathExpression() throws JSONException {
+        JSONObject data = new JSONObject().put("foo", new JSONArray().put(new JSONObject().put("bar", "42")));
+        assertEquals("Failed to fall back to JsonPath for a wildcard", "[\"42\"]", JSONUtils.getStringFromJSONPath(data, "foo[*].bar"));
+
+        data = new JSONObject().put("foo", new JSONObject().put("bar", "42").put("baz", "43").put("qux", "44"));
+        final JSONObject object = JSONUtils.getJSONObjectFromJSONPath(data, "foo['bar','baz']");
+        assertNotNull("A JsonPath result should be converted to a JSONObject", object);
+        assertEquals("42", object.optString("bar"));
+        assertEquals(2, object.length());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
     public void invalidArrayIndex() throws JSONException {
         JSONObject data = new JSONObject().put("foo", new JSONObject().put("bar", new JSONArray().put("42")));
         JSONUtils.getStringFromJSONPath(data, "foo.bar[baz]");